@@ -0,0 +1,113 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class DocumentGenerator {
+    private static final int CELL_SIZE = 20;
+
+    private final Random random;
+    private final int extent;
+
+    public DocumentGenerator(int size, long seed) {
+        this.random = new Random(seed);
+        this.extent = Math.max(800, (int) Math.sqrt(size) * CELL_SIZE);
+    }
+
+    public int getExtent() { return extent; }
+
+    public static List<GraphicalObject> lines(int size) {
+        DocumentGenerator generator = new DocumentGenerator(size, 42);
+        List<GraphicalObject> objects = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            objects.add(generator.randomLine());
+        }
+        return objects;
+    }
+
+    public static List<GraphicalObject> ovals(int size) {
+        DocumentGenerator generator = new DocumentGenerator(size, 43);
+        List<GraphicalObject> objects = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            objects.add(generator.randomOval());
+        }
+        return objects;
+    }
+
+    public static List<GraphicalObject> mixed(int size) {
+        DocumentGenerator generator = new DocumentGenerator(size, 44);
+        List<GraphicalObject> objects = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            objects.add(i % 2 == 0 ? generator.randomLine() : generator.randomOval());
+        }
+        return objects;
+    }
+
+    public static List<GraphicalObject> nestedComposites(int size, int depth) {
+        DocumentGenerator generator = new DocumentGenerator(size, 45);
+        List<GraphicalObject> objects = new ArrayList<>();
+        int leavesPerGroup = Math.max(1, depth);
+        int created = 0;
+        while (created < size) {
+            int leaves = Math.min(leavesPerGroup, size - created);
+            objects.add(generator.nestedGroup(leaves, depth));
+            created += leaves;
+        }
+        return objects;
+    }
+
+    public static DocumentModel model(List<GraphicalObject> objects) {
+        DocumentModel model = new DocumentModel();
+        model.batch(() -> {
+            for (GraphicalObject obj : objects) {
+                model.addGraphicalObject(obj);
+            }
+        });
+        return model;
+    }
+
+    public Point randomPoint() {
+        return new Point(random.nextInt(extent), random.nextInt(extent));
+    }
+
+    public Rectangle randomRegion(int maxSize) {
+        return new Rectangle(random.nextInt(extent), random.nextInt(extent),
+                1 + random.nextInt(maxSize), 1 + random.nextInt(maxSize));
+    }
+
+    private GraphicalObject nestedGroup(int leaves, int depth) {
+        int x = random.nextInt(extent);
+        int y = random.nextInt(extent);
+        GraphicalObject group = leafNear(leaves, x, y);
+        for (int level = 1; level < depth && level < leaves; level++) {
+            List<GraphicalObject> children = new ArrayList<>();
+            children.add(group);
+            children.add(leafNear(level, x, y));
+            group = new CompositeShape(children);
+        }
+        return group;
+    }
+
+    private GraphicalObject leafNear(int i, int x, int y) {
+        int leafX = x + random.nextInt(4 * CELL_SIZE);
+        int leafY = y + random.nextInt(4 * CELL_SIZE);
+        return i % 2 == 0 ? line(leafX, leafY) : oval(leafX, leafY);
+    }
+
+    private LineSegment randomLine() {
+        return line(random.nextInt(extent), random.nextInt(extent));
+    }
+
+    private Oval randomOval() {
+        return oval(random.nextInt(extent), random.nextInt(extent));
+    }
+
+    private LineSegment line(int x, int y) {
+        return new LineSegment(new Point(x, y),
+                new Point(x + random.nextInt(2 * CELL_SIZE) - CELL_SIZE, y + random.nextInt(2 * CELL_SIZE) - CELL_SIZE));
+    }
+
+    private Oval oval(int x, int y) {
+        return new Oval(new Point(x + 1 + random.nextInt(CELL_SIZE / 2), y),
+                new Point(x, y + 1 + random.nextInt(CELL_SIZE / 2)));
+    }
+}
@@ -0,0 +1,40 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+public class EraserTrailBenchmark extends SizedBenchmark {
+    private static final double TOLERANCE = 2;
+    private static final int MAX_POINTS = 2048;
+
+    private final SimplifiedPath trail = new SimplifiedPath(TOLERANCE, MAX_POINTS);
+    private int[] xs;
+    private int[] ys;
+
+    @Setup
+    public void setUp() {
+        xs = new int[size];
+        ys = new int[size];
+        for (int i = 0; i < size; i++) {
+            xs[i] = 3 * i;
+            ys[i] = i % 2 == 0 ? 0 : 20;
+        }
+    }
+
+    @Benchmark
+    public SimplifiedPath eraserTrailZigzag() {
+        trail.clear();
+        for (int i = 0; i < xs.length; i++) {
+            trail.add(xs[i], ys[i]);
+            if (trail.size() > MAX_POINTS) {
+                throw new IllegalStateException("Trail exceeds " + MAX_POINTS + " points: " + trail.size());
+            }
+        }
+        int last = trail.size() - 1;
+        if (trail.getXs()[last] != xs[xs.length - 1] || trail.getYs()[last] != ys[ys.length - 1]) {
+            throw new IllegalStateException("Trail does not end at the last point");
+        }
+        if (trail.getTolerance() > 8 * TOLERANCE) {
+            throw new IllegalStateException("Trail tolerance grew to " + trail.getTolerance());
+        }
+        return trail;
+    }
+}
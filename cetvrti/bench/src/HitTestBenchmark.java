@@ -0,0 +1,33 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.List;
+
+public class HitTestBenchmark extends SizedBenchmark {
+    private static final int QUERIES = 1000;
+
+    private DocumentModel model;
+    private Point[] queries;
+
+    @Setup
+    public void setUp() {
+        List<GraphicalObject> objects = DocumentGenerator.mixed(size);
+        model = DocumentGenerator.model(objects);
+        DocumentGenerator generator = new DocumentGenerator(size, 7);
+        queries = new Point[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = generator.randomPoint();
+        }
+    }
+
+    @Benchmark
+    public int findSelectedGraphicalObject() {
+        int hits = 0;
+        for (Point query : queries) {
+            if (model.findSelectedGraphicalObject(query) != null) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,34 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+public class LoadBenchmark extends SizedBenchmark {
+    @Param({".txt", BinaryDrawingFormat.EXTENSION})
+    public String extension;
+
+    @Param({"false", "true"})
+    public boolean columnar;
+
+    private File file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = File.createTempFile("bench", extension);
+        DrawingIO.save(DocumentGenerator.nestedComposites(size, 4), file.getAbsolutePath());
+    }
+
+    @Benchmark
+    public List<GraphicalObject> load() throws IOException {
+        return DrawingIO.load(file.getAbsolutePath(), null, columnar ? new ShapeStore() : null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+}
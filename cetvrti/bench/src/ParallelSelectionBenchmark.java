@@ -0,0 +1,47 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelSelectionBenchmark extends SizedBenchmark {
+    private static final int QUERIES = 20;
+
+    @Param({"1", "2", "4"})
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private DocumentModel model;
+    private Rectangle[] queries;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        List<GraphicalObject> objects = DocumentGenerator.mixed(size);
+        model = DocumentGenerator.model(objects);
+        model.setParallelThreshold(0);
+        DocumentGenerator generator = new DocumentGenerator(size, 9);
+        queries = new Rectangle[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = generator.randomRegion(generator.getExtent() / 2);
+        }
+    }
+
+    @Benchmark
+    public int parallelSelection() {
+        return pool.submit(() -> {
+            int inside = 0;
+            for (Rectangle query : queries) {
+                inside += model.findContainedGraphicalObjects(query).size();
+            }
+            return inside;
+        }).join();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+}
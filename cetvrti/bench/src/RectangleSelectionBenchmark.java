@@ -0,0 +1,36 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.List;
+
+public class RectangleSelectionBenchmark extends SizedBenchmark {
+    private static final int QUERIES = 100;
+    private static final int MAX_REGION_SIZE = 400;
+
+    private DocumentModel model;
+    private Rectangle[] queries;
+
+    @Setup
+    public void setUp() {
+        List<GraphicalObject> objects = DocumentGenerator.mixed(size);
+        model = DocumentGenerator.model(objects);
+        DocumentGenerator generator = new DocumentGenerator(size, 8);
+        queries = new Rectangle[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = generator.randomRegion(MAX_REGION_SIZE);
+        }
+    }
+
+    @Benchmark
+    public int rectangleSelection() {
+        int inside = 0;
+        for (Rectangle query : queries) {
+            for (GraphicalObject obj : model.findGraphicalObjects(query)) {
+                if (query.contains(obj.getBoundingBox())) {
+                    inside++;
+                }
+            }
+        }
+        return inside;
+    }
+}
@@ -0,0 +1,38 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+public class RenderBenchmark extends SizedBenchmark {
+    private static final int MAX_IMAGE_SIZE = 4096;
+
+    @Param({"false", "true"})
+    public boolean composites;
+
+    private List<GraphicalObject> objects;
+    private BufferedImage image;
+
+    @Setup
+    public void setUp() {
+        objects = composites ? DocumentGenerator.nestedComposites(size, 32) : DocumentGenerator.mixed(size);
+        int extent = Math.min(MAX_IMAGE_SIZE, new DocumentGenerator(size, 0).getExtent());
+        image = new BufferedImage(extent, extent, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Benchmark
+    public BufferedImage renderG2D() {
+        Graphics2D g2d = image.createGraphics();
+        try {
+            Renderer r = new G2DRendererImpl(g2d);
+            for (GraphicalObject obj : objects) {
+                obj.render(r);
+            }
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+}
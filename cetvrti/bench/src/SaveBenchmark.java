@@ -0,0 +1,33 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+public class SaveBenchmark extends SizedBenchmark {
+    @Param({".txt", BinaryDrawingFormat.EXTENSION})
+    public String extension;
+
+    private List<GraphicalObject> objects;
+    private File file;
+
+    @Setup
+    public void setUp() throws IOException {
+        objects = DocumentGenerator.nestedComposites(size, 4);
+        file = File.createTempFile("bench", extension);
+    }
+
+    @Benchmark
+    public long save() throws IOException {
+        DrawingIO.save(objects, file.getAbsolutePath());
+        return file.length();
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+}
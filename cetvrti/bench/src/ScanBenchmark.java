@@ -0,0 +1,66 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.List;
+
+public class ScanBenchmark extends SizedBenchmark {
+    private static final int QUERIES = 20;
+
+    @Param({"false", "true"})
+    public boolean columnar;
+
+    private List<GraphicalObject> objects;
+    private ShapeStore store;
+    private Point[] queries;
+
+    @Setup
+    public void setUp() {
+        objects = DocumentGenerator.mixed(size);
+        if (columnar) {
+            store = new ShapeStore(size);
+            for (GraphicalObject obj : objects) {
+                Point p0 = obj.getHotPoint(0);
+                Point p1 = obj.getHotPoint(1);
+                if (obj instanceof LineSegment) {
+                    store.addLine(p0.getX(), p0.getY(), p1.getX(), p1.getY());
+                } else {
+                    store.addOval(p0.getX(), p0.getY(), p1.getX(), p1.getY());
+                }
+            }
+            objects = null;
+        }
+        DocumentGenerator generator = new DocumentGenerator(size, 7);
+        queries = new Point[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = generator.randomPoint();
+        }
+    }
+
+    @Benchmark
+    public int fullScanHitTest() {
+        int hits = 0;
+        for (Point query : queries) {
+            if ((columnar ? store.findNearest(query, DocumentModel.SELECTION_PROXIMITY) : scan(query)) != null) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private GraphicalObject scan(Point query) {
+        Rectangle region = Rectangle.around(query, (int) Math.ceil(DocumentModel.SELECTION_PROXIMITY));
+        GraphicalObject nearest = null;
+        double minDistance = DocumentModel.SELECTION_PROXIMITY;
+        for (GraphicalObject obj : objects) {
+            if (obj.getBoundingBox().intersects(region)) {
+                double distance = obj.selectionDistance(query);
+                if (distance < minDistance) {
+                    minDistance = distance;
+                    nearest = obj;
+                }
+            }
+        }
+        return nearest;
+    }
+}
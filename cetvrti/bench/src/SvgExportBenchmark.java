@@ -0,0 +1,33 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+public class SvgExportBenchmark extends SizedBenchmark {
+    private List<GraphicalObject> objects;
+    private File file;
+
+    @Setup
+    public void setUp() throws IOException {
+        objects = DocumentGenerator.mixed(size);
+        file = File.createTempFile("bench", ".svg");
+    }
+
+    @Benchmark
+    public long svgExport() throws IOException {
+        SVGRendererImpl r = new SVGRendererImpl(file.getAbsolutePath());
+        for (GraphicalObject obj : objects) {
+            obj.render(r);
+        }
+        r.close();
+        return file.length();
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+}
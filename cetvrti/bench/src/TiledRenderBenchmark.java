@@ -0,0 +1,38 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class TiledRenderBenchmark extends SizedBenchmark {
+    private static final int MAX_IMAGE_SIZE = 4096;
+
+    @Param({"1", "2", "4"})
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private TiledRasterizer rasterizer;
+    private List<GraphicalObject> objects;
+    private int extent;
+
+    @Setup
+    public void setUp() {
+        objects = DocumentGenerator.mixed(size);
+        extent = Math.min(MAX_IMAGE_SIZE, new DocumentGenerator(size, 0).getExtent());
+        pool = new ForkJoinPool(parallelism);
+        rasterizer = new TiledRasterizer(pool, TiledRasterizer.DEFAULT_TILE_SIZE);
+    }
+
+    @Benchmark
+    public BufferedImage renderTiled() {
+        return rasterizer.render(objects, extent, extent, 1, 0, 0, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,27 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.List;
+
+public class TranslateBenchmark extends SizedBenchmark {
+    private static final int STEPS = 10;
+
+    private DocumentModel model;
+    private List<GraphicalObject> objects;
+    private final Point right = new Point(1, 0);
+    private final Point left = new Point(-1, 0);
+
+    @Setup
+    public void setUp() {
+        objects = DocumentGenerator.mixed(size);
+        model = DocumentGenerator.model(objects);
+    }
+
+    @Benchmark
+    public DocumentModel translate() {
+        for (int i = 0; i < STEPS; i++) {
+            model.translate(objects, i % 2 == 0 ? right : left);
+        }
+        return model;
+    }
+}
@@ -0,0 +1,45 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+public class ZoomedOutRenderBenchmark extends SizedBenchmark {
+    private static final int IMAGE_SIZE = 1024;
+
+    @Param({"false", "true"})
+    public boolean levelOfDetail;
+
+    private final LevelOfDetail lod = new LevelOfDetail();
+    private List<GraphicalObject> objects;
+    private BufferedImage image;
+    private double scale;
+
+    @Setup
+    public void setUp() {
+        objects = DocumentGenerator.nestedComposites(size, 8);
+        image = new BufferedImage(IMAGE_SIZE, IMAGE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        scale = Math.min(1, IMAGE_SIZE / (double) new DocumentGenerator(size, 0).getExtent());
+    }
+
+    @Benchmark
+    public BufferedImage renderZoomedOut() {
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.scale(scale, scale);
+            G2DRendererImpl r = new G2DRendererImpl(g2d);
+            for (GraphicalObject obj : objects) {
+                if (levelOfDetail) {
+                    lod.render(obj, r, scale);
+                } else {
+                    obj.render(r);
+                }
+            }
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+}
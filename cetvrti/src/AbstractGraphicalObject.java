@@ -2,31 +2,55 @@ import java.util.ArrayList;
 import java.util.List;
 
 public abstract class AbstractGraphicalObject implements GraphicalObject {
-    protected Point[] hotPoints;
+    protected int[] hotPoints;
     protected boolean[] hotPointSelected;
     protected boolean selected;
     protected List<GraphicalObjectListener> listeners = new ArrayList<>();
+    private Rectangle boundingBox;
 
     public AbstractGraphicalObject(Point[] hotPoints) {
-        this.hotPoints = hotPoints;
+        this.hotPoints = new int[2 * hotPoints.length];
         this.hotPointSelected = new boolean[hotPoints.length];
+        for (int i = 0; i < hotPoints.length; i++) {
+            this.hotPoints[2 * i] = hotPoints[i].getX();
+            this.hotPoints[2 * i + 1] = hotPoints[i].getY();
+        }
+    }
+
+    @Override
+    public long getMemorySize() {
+        return 160 + 4L * hotPoints.length + hotPointSelected.length;
     }
 
     @Override
-    public Point getHotPoint(int index) { return hotPoints[index]; }
+    public Point getHotPoint(int index) { return new Point(hotPoints[2 * index], hotPoints[2 * index + 1]); }
+
+    @Override
+    public int getHotPointX(int index) { return hotPoints[2 * index]; }
+
+    @Override
+    public int getHotPointY(int index) { return hotPoints[2 * index + 1]; }
 
     @Override
     public void setHotPoint(int index, Point point) {
-        hotPoints[index] = point;
+        setHotPoint(index, point.getX(), point.getY());
+    }
+
+    @Override
+    public void setHotPoint(int index, int x, int y) {
+        hotPoints[2 * index] = x;
+        hotPoints[2 * index + 1] = y;
+        hotPointsChanged();
         notifyListeners();
     }
 
     @Override
-    public int getNumberOfHotPoints() { return hotPoints.length; }
+    public int getNumberOfHotPoints() { return hotPointSelected.length; }
 
     @Override
     public double getHotPointDistance(int index, Point mousePoint) {
-        return GeometryUtil.distanceFromPoint(hotPoints[index], mousePoint);
+        return GeometryUtil.distanceFromPoint(hotPoints[2 * index], hotPoints[2 * index + 1],
+                mousePoint.getX(), mousePoint.getY());
     }
 
     @Override
@@ -49,12 +73,33 @@ public abstract class AbstractGraphicalObject implements GraphicalObject {
 
     @Override
     public void translate(Point delta) {
-        for (int i = 0; i < hotPoints.length; i++) {
-            hotPoints[i] = hotPoints[i].translate(delta);
+        translate(delta.getX(), delta.getY());
+    }
+
+    @Override
+    public void translate(int dx, int dy) {
+        for (int i = 0; i < hotPoints.length; i += 2) {
+            hotPoints[i] += dx;
+            hotPoints[i + 1] += dy;
         }
+        hotPointsChanged();
         notifyListeners();
     }
 
+    @Override
+    public Rectangle getBoundingBox() {
+        if (boundingBox == null) {
+            boundingBox = computeBoundingBox();
+        }
+        return boundingBox;
+    }
+
+    protected abstract Rectangle computeBoundingBox();
+
+    protected void hotPointsChanged() {
+        boundingBox = null;
+    }
+
     @Override
     public void addGraphicalObjectListener(GraphicalObjectListener l) {
         listeners.add(l);
@@ -0,0 +1,26 @@
+public class AddObjectCommand implements Command {
+    private final GraphicalObject target;
+    private final int zIndex;
+    private final long memorySize;
+
+    public AddObjectCommand(GraphicalObject target, int zIndex) {
+        this.target = target;
+        this.zIndex = zIndex;
+        this.memorySize = 24 + target.getMemorySize();
+    }
+
+    @Override
+    public void undo(DocumentModel model) {
+        model.removeGraphicalObject(target);
+    }
+
+    @Override
+    public void redo(DocumentModel model) {
+        model.addGraphicalObject(zIndex, target);
+    }
+
+    @Override
+    public long getMemorySize() {
+        return memorySize;
+    }
+}
@@ -31,7 +31,7 @@ public class AddShapeState implements State {
     }
 
     @Override
-    public void mouseDragged(Point mousePoint) {
+    public void mouseDragged(int x, int y) {
     }
 
     @Override
@@ -46,6 +46,11 @@ public class AddShapeState implements State {
     public void afterDraw(Renderer r) {
     }
 
+    @Override
+    public boolean isEditingSelection() {
+        return false;
+    }
+
     @Override
     public void onLeaving() {
     }
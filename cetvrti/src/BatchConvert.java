@@ -0,0 +1,146 @@
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+public class BatchConvert {
+    private static final String[] FORMATS = {"svg", "svgz", "png", "vgb", "txt"};
+
+    private final String format;
+    private final Path outputDirectory;
+    private final double scale;
+    private final Semaphore permits;
+    private final PngExporter pngExporter = new PngExporter();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicLong convertedObjects = new AtomicLong();
+
+    public BatchConvert(String format, Path outputDirectory, double scale, int concurrency) {
+        this.format = format;
+        this.outputDirectory = outputDirectory;
+        this.scale = scale;
+        this.permits = new Semaphore(concurrency);
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        int concurrency = Runtime.getRuntime().availableProcessors();
+        double scale = 1;
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-j") && i + 1 < args.length) {
+                concurrency = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-scale") && i + 1 < args.length) {
+                scale = Double.parseDouble(args[++i]);
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        if (positional.size() < 3 || !List.of(FORMATS).contains(positional.get(0)) || concurrency < 1 || !(scale > 0)) {
+            System.err.println("Usage: BatchConvert <svg|svgz|png|vgb|txt> <output dir> <file|dir|glob>... [-j threads] [-scale s]");
+            System.exit(2);
+        }
+
+        List<Path> inputs = new ArrayList<>();
+        for (String pattern : positional.subList(2, positional.size())) {
+            collectInputs(pattern, inputs);
+        }
+        Path outputDirectory = Paths.get(positional.get(1));
+        Files.createDirectories(outputDirectory);
+
+        BatchConvert converter = new BatchConvert(positional.get(0), outputDirectory, scale, concurrency);
+        System.exit(converter.convertAll(inputs) ? 0 : 1);
+    }
+
+    public boolean convertAll(List<Path> inputs) throws InterruptedException {
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Path input : inputs) {
+                permits.acquire();
+                executor.submit(() -> {
+                    try {
+                        convert(input);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int converted = inputs.size() - failures.get();
+        System.out.printf("%d converted, %d failed in %.3f s (%.1f files/s, %.0f objects/s)%n",
+                converted, failures.get(), seconds, converted / seconds, convertedObjects.get() / seconds);
+        return failures.get() == 0;
+    }
+
+    private void convert(Path input) {
+        long start = System.nanoTime();
+        Path output = outputDirectory.resolve(outputName(input));
+        try {
+            List<GraphicalObject> objects = DrawingIO.load(input.toString());
+            switch (format) {
+                case "svg", "svgz" -> DrawingIO.exportSVG(objects, output.toString());
+                case "png" -> pngExporter.export(objects, output.toString(), scale);
+                default -> DrawingIO.save(objects, output.toString());
+            }
+            convertedObjects.addAndGet(objects.size());
+            System.out.printf("%10.3f ms  %s -> %s (%d objects)%n",
+                    (System.nanoTime() - start) / 1e6, input, output, objects.size());
+        } catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            System.out.printf("%10.3f ms  %s FAILED: %s%n", (System.nanoTime() - start) / 1e6, input, e);
+        }
+    }
+
+    private String outputName(Path input) {
+        String name = input.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return (dot > 0 ? name.substring(0, dot) : name) + "." + format;
+    }
+
+    private static void collectInputs(String pattern, List<Path> inputs) throws IOException {
+        int wildcard = indexOfWildcard(pattern);
+        if (wildcard < 0) {
+            Path path = Paths.get(pattern);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> files = Files.list(path)) {
+                    files.filter(BatchConvert::isDrawing).sorted().forEach(inputs::add);
+                }
+            } else {
+                inputs.add(path);
+            }
+            return;
+        }
+
+        int separator = Math.max(pattern.lastIndexOf('/', wildcard), pattern.lastIndexOf('\\', wildcard));
+        Path base = Paths.get(separator < 0 ? "." : pattern.substring(0, separator + 1));
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        try (Stream<Path> files = Files.walk(base)) {
+            files.filter(Files::isRegularFile)
+                    .filter(path -> matcher.matches(separator < 0 ? base.relativize(path) : path))
+                    .sorted()
+                    .forEach(inputs::add);
+        }
+    }
+
+    private static int indexOfWildcard(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if ("*?[{".indexOf(pattern.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDrawing(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        return Files.isRegularFile(path) && (name.endsWith(".txt") || DrawingIO.isBinary(name));
+    }
+}
@@ -0,0 +1,6 @@
+public class BinaryDrawingFormat {
+    public static final int MAGIC = 0x43545644;
+    public static final int VERSION = 1;
+    public static final String EXTENSION = ".vgb";
+    public static final int HEADER_BYTES = 12;
+}
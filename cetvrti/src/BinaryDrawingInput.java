@@ -0,0 +1,76 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class BinaryDrawingInput implements DrawingInput {
+    private final ByteBuffer buffer;
+    private final GraphicalObject[] shapeTypes;
+
+    public BinaryDrawingInput(ByteBuffer buffer, List<GraphicalObject> prototypes) throws IOException {
+        this.buffer = buffer;
+
+        if (buffer.remaining() < BinaryDrawingFormat.HEADER_BYTES || buffer.getInt() != BinaryDrawingFormat.MAGIC) {
+            throw new IOException("Not a binary drawing file");
+        }
+        int version = buffer.getInt();
+        if (version != BinaryDrawingFormat.VERSION) {
+            throw new IOException("Unsupported binary drawing version: " + version);
+        }
+
+        int typeCount = nextInt();
+        if (typeCount < 0) {
+            throw new IOException("Corrupt shape-type table");
+        }
+        shapeTypes = new GraphicalObject[typeCount];
+        for (int i = 0; i < typeCount; i++) {
+            String shapeID = readShapeID();
+            for (GraphicalObject prototype : prototypes) {
+                if (prototype.getShapeID().equals(shapeID)) {
+                    shapeTypes[i] = prototype;
+                }
+            }
+            if (shapeTypes[i] == null) {
+                throw new IOException("Unknown shape type: " + shapeID);
+            }
+        }
+    }
+
+    public boolean hasNextShape() {
+        return buffer.hasRemaining();
+    }
+
+    public GraphicalObject nextShape() throws IOException {
+        int type = nextInt();
+        if (type < 0 || type >= shapeTypes.length) {
+            throw new IOException("Corrupt shape type at byte " + (buffer.position() - Integer.BYTES));
+        }
+        return shapeTypes[type];
+    }
+
+    public long getPosition() {
+        return buffer.position();
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            throw new EOFException("Unexpected end of binary drawing");
+        }
+        return buffer.getInt();
+    }
+
+    private String readShapeID() throws IOException {
+        if (buffer.remaining() < Short.BYTES) {
+            throw new EOFException("Unexpected end of binary drawing");
+        }
+        int length = buffer.getShort();
+        if (length < 0 || buffer.remaining() < length) {
+            throw new IOException("Corrupt shape-type table");
+        }
+        byte[] id = new byte[length];
+        buffer.get(id);
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+}
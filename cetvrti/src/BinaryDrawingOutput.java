@@ -0,0 +1,67 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class BinaryDrawingOutput implements DrawingOutput {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final List<GraphicalObject> shapeTypes;
+
+    public BinaryDrawingOutput(WritableByteChannel channel, List<GraphicalObject> shapeTypes) throws IOException {
+        this.channel = channel;
+        this.shapeTypes = shapeTypes;
+
+        buffer.putInt(BinaryDrawingFormat.MAGIC);
+        buffer.putInt(BinaryDrawingFormat.VERSION);
+        buffer.putInt(shapeTypes.size());
+        for (GraphicalObject type : shapeTypes) {
+            byte[] id = type.getShapeID().getBytes(StandardCharsets.US_ASCII);
+            buffer.putShort((short) id.length);
+            buffer.put(id);
+        }
+    }
+
+    @Override
+    public void beginShape(String shapeID) throws IOException {
+        for (int i = 0; i < shapeTypes.size(); i++) {
+            if (shapeTypes.get(i).getShapeID().equals(shapeID)) {
+                writeInt(i);
+                return;
+            }
+        }
+        throw new IOException("Unknown shape type: " + shapeID);
+    }
+
+    @Override
+    public void writeInt(int value) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            flush();
+        }
+        buffer.putInt(value);
+    }
+
+    @Override
+    public void endShape() {
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
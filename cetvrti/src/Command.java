@@ -0,0 +1,9 @@
+public interface Command {
+    void undo(DocumentModel model);
+    void redo(DocumentModel model);
+    long getMemorySize();
+
+    default boolean mergeWith(Command next) {
+        return false;
+    }
+}
@@ -0,0 +1,90 @@
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+public class CommandHistory {
+    private final Deque<Command> undoStack = new ArrayDeque<>();
+    private final Deque<Command> redoStack = new ArrayDeque<>();
+    private long memoryLimit = Long.getLong("cetvrti.undo.memoryLimit", 16L << 20);
+    private long memoryUsed;
+    private boolean sealed = true;
+
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    public void setMemoryLimit(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+        trim();
+    }
+
+    public long getMemoryUsed() {
+        return memoryUsed;
+    }
+
+    public boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoStack.isEmpty();
+    }
+
+    public void seal() {
+        sealed = true;
+    }
+
+    public void record(Command command) {
+        clearRedo();
+        Command last = undoStack.peekLast();
+        if (!sealed && last != null) {
+            long before = last.getMemorySize();
+            if (last.mergeWith(command)) {
+                memoryUsed += last.getMemorySize() - before;
+                return;
+            }
+        }
+        undoStack.addLast(command);
+        memoryUsed += command.getMemorySize();
+        sealed = false;
+        trim();
+    }
+
+    public void clear() {
+        clearRedo();
+        while (!undoStack.isEmpty()) {
+            undoStack.removeLast();
+        }
+        memoryUsed = 0;
+        sealed = true;
+    }
+
+    Command popUndo() {
+        sealed = true;
+        Command command = undoStack.pollLast();
+        if (command != null) {
+            redoStack.addLast(command);
+        }
+        return command;
+    }
+
+    Command popRedo() {
+        sealed = true;
+        Command command = redoStack.pollLast();
+        if (command != null) {
+            undoStack.addLast(command);
+        }
+        return command;
+    }
+
+    private void clearRedo() {
+        while (!redoStack.isEmpty()) {
+            memoryUsed -= redoStack.removeLast().getMemorySize();
+        }
+    }
+
+    private void trim() {
+        while (memoryUsed > memoryLimit && !undoStack.isEmpty()) {
+            memoryUsed -= undoStack.removeFirst().getMemorySize();
+        }
+    }
+}
@@ -1,35 +1,97 @@
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
-import java.util.Stack;
 
 public class CompositeShape implements GraphicalObject {
 
     private List<GraphicalObject> children;
     private boolean selected;
     private List<GraphicalObjectListener> listeners = new ArrayList<>();
+    private Rectangle boundingBox;
+    private Rectangle selectionBounds;
+    private boolean translating;
+    private boolean attached = true;
+    private int modificationCount;
+
+    private final GraphicalObjectListener childListener = new GraphicalObjectListener() {
+        @Override
+        public void graphicalObjectChanged(GraphicalObject go) {
+            boundingBox = null;
+            selectionBounds = null;
+            if (!translating) {
+                modificationCount++;
+                notifyListeners();
+            }
+        }
+
+        @Override
+        public void graphicalObjectSelectionChanged(GraphicalObject go) {
+        }
+    };
 
     public CompositeShape(List<GraphicalObject> children) {
         this.children = new ArrayList<>(children);
         this.selected = false;
 
         for (GraphicalObject child : this.children) {
-            child.addGraphicalObjectListener(new GraphicalObjectListener() {
-                @Override
-                public void graphicalObjectChanged(GraphicalObject go) {
-                    notifyListeners();
-                }
+            child.addGraphicalObjectListener(childListener);
+        }
+    }
+
+    public void attachChildren() {
+        if (attached) {
+            return;
+        }
+        for (GraphicalObject child : children) {
+            child.addGraphicalObjectListener(childListener);
+        }
+        attached = true;
+        boundingBox = null;
+        selectionBounds = null;
+        modificationCount++;
+    }
 
-                @Override
-                public void graphicalObjectSelectionChanged(GraphicalObject go) {
-                }
-            });
+    public void detachChildren() {
+        if (!attached) {
+            return;
+        }
+        for (GraphicalObject child : children) {
+            child.removeGraphicalObjectListener(childListener);
         }
+        attached = false;
+    }
+
+    public boolean isAttached() {
+        return attached;
     }
 
     public List<GraphicalObject> getChildren() {
         return new ArrayList<>(children);
     }
 
+    public int getNumberOfChildren() {
+        return children.size();
+    }
+
+    public GraphicalObject getChild(int index) {
+        return children.get(index);
+    }
+
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    @Override
+    public long getMemorySize() {
+        long size = 256 + 4L * children.size();
+        for (GraphicalObject child : children) {
+            size += child.getMemorySize();
+        }
+        return size;
+    }
+
     @Override
     public boolean isSelected() {
         return selected;
@@ -78,26 +140,57 @@ public class CompositeShape implements GraphicalObject {
 
     @Override
     public void translate(Point delta) {
-        for (GraphicalObject child : children) {
-            child.translate(delta);
+        translate(delta.getX(), delta.getY());
+    }
+
+    @Override
+    public void translate(int dx, int dy) {
+        Rectangle oldBoundingBox = getBoundingBox();
+        Rectangle oldSelectionBounds = getSelectionBounds();
+        translating = true;
+        try {
+            for (GraphicalObject child : children) {
+                child.translate(dx, dy);
+            }
+        } finally {
+            translating = false;
         }
+        boundingBox = children.isEmpty() ? null : new Rectangle(oldBoundingBox.getX() + dx,
+                oldBoundingBox.getY() + dy, oldBoundingBox.getWidth(), oldBoundingBox.getHeight());
+        selectionBounds = children.isEmpty() ? null : new Rectangle(oldSelectionBounds.getX() + dx,
+                oldSelectionBounds.getY() + dy, oldSelectionBounds.getWidth(), oldSelectionBounds.getHeight());
         notifyListeners();
     }
 
     @Override
     public Rectangle getBoundingBox() {
+        if (boundingBox == null) {
+            boundingBox = computeBounds(false);
+        }
+        return boundingBox;
+    }
+
+    @Override
+    public Rectangle getSelectionBounds() {
+        if (selectionBounds == null) {
+            selectionBounds = computeBounds(true);
+        }
+        return selectionBounds;
+    }
+
+    private Rectangle computeBounds(boolean selection) {
         if (children.isEmpty()) {
             return new Rectangle(0, 0, 0, 0);
         }
 
-        Rectangle firstBbox = children.get(0).getBoundingBox();
+        Rectangle firstBbox = selection ? children.get(0).getSelectionBounds() : children.get(0).getBoundingBox();
         int minX = firstBbox.getX();
         int minY = firstBbox.getY();
         int maxX = minX + firstBbox.getWidth();
         int maxY = minY + firstBbox.getHeight();
 
         for (int i = 1; i < children.size(); i++) {
-            Rectangle bbox = children.get(i).getBoundingBox();
+            Rectangle bbox = selection ? children.get(i).getSelectionBounds() : children.get(i).getBoundingBox();
             minX = Math.min(minX, bbox.getX());
             minY = Math.min(minY, bbox.getY());
             maxX = Math.max(maxX, bbox.getX() + bbox.getWidth());
@@ -145,24 +238,28 @@ public class CompositeShape implements GraphicalObject {
     }
 
     @Override
-    public void save(List<String> rows) {
+    public void save(DrawingOutput out) throws IOException {
         for (GraphicalObject child : children) {
-            child.save(rows);
+            child.save(out);
         }
-        rows.add(String.format("%s %d", getShapeID(), children.size()));
+        out.beginShape(getShapeID());
+        out.writeInt(children.size());
+        out.endShape();
     }
 
     @Override
-    public void load(Stack<GraphicalObject> stack, String data) {
-        String[] parts = data.trim().split("\\s+");
-        int childrenCount = Integer.parseInt(parts[0]);
+    public void load(Deque<GraphicalObject> stack, DrawingInput data) throws IOException {
+        int childrenCount = data.nextInt();
+        if (childrenCount < 0 || childrenCount > stack.size()) {
+            throw new NumberFormatException("Invalid number of composite children: " + childrenCount);
+        }
 
-        List<GraphicalObject> newChildren = new ArrayList<>();
-        for (int i = 0; i < childrenCount; i++) {
-            newChildren.add(0, stack.pop());
+        GraphicalObject[] newChildren = new GraphicalObject[childrenCount];
+        for (int i = childrenCount - 1; i >= 0; i--) {
+            newChildren[i] = stack.pop();
         }
 
-        CompositeShape newComposite = new CompositeShape(newChildren);
+        CompositeShape newComposite = new CompositeShape(Arrays.asList(newChildren));
         stack.push(newComposite);
     }
 
@@ -0,0 +1,32 @@
+import java.util.List;
+
+public class CompoundCommand implements Command {
+    private final Command[] commands;
+
+    public CompoundCommand(List<Command> commands) {
+        this.commands = commands.toArray(new Command[0]);
+    }
+
+    @Override
+    public void undo(DocumentModel model) {
+        for (int i = commands.length - 1; i >= 0; i--) {
+            commands[i].undo(model);
+        }
+    }
+
+    @Override
+    public void redo(DocumentModel model) {
+        for (Command command : commands) {
+            command.redo(model);
+        }
+    }
+
+    @Override
+    public long getMemorySize() {
+        long size = 16 + 8L * commands.length;
+        for (Command command : commands) {
+            size += command.getMemorySize();
+        }
+        return size;
+    }
+}
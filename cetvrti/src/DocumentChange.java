@@ -0,0 +1,12 @@
+public class DocumentChange {
+    public static final DocumentChange ALL = new DocumentChange(null);
+
+    private final Rectangle dirtyRegion;
+
+    public DocumentChange(Rectangle dirtyRegion) {
+        this.dirtyRegion = dirtyRegion;
+    }
+
+    public boolean isFullChange() { return dirtyRegion == null; }
+    public Rectangle getDirtyRegion() { return dirtyRegion; }
+}
@@ -1,58 +1,292 @@
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class DocumentModel {
     public final static double SELECTION_PROXIMITY = 10;
+    public final static int DEFAULT_PARALLEL_THRESHOLD = 8192;
 
-    private List<GraphicalObject> objects = new ArrayList<>();
-    private List<GraphicalObject> roObjects = Collections.unmodifiableList(objects);
+    private final ZOrderTree objects = new ZOrderTree();
+    private List<GraphicalObject> roObjects = Collections.unmodifiableList(objects.asList());
     private List<DocumentModelListener> listeners = new ArrayList<>();
-    private List<GraphicalObject> selectedObjects = new ArrayList<>();
-    private List<GraphicalObject> roSelectedObjects = Collections.unmodifiableList(selectedObjects);
+    private final Map<GraphicalObject, Long> selectedObjects = new IdentityHashMap<>();
+    private long selectionSequence;
+    private List<GraphicalObject> roSelectedObjects;
+    private final SpatialIndex spatialIndex;
+    private int batchDepth;
+    private Rectangle dirtyRegion;
+    private boolean fullChange;
+    private final CommandHistory history = new CommandHistory();
+    private final List<Command> pendingCommands = new ArrayList<>();
+    private boolean replaying;
+    private int parallelThreshold = Integer.getInteger("cetvrti.parallelThreshold", DEFAULT_PARALLEL_THRESHOLD);
 
     private final GraphicalObjectListener goListener = new GraphicalObjectListener() {
         @Override
         public void graphicalObjectChanged(GraphicalObject go) {
-            notifyListeners();
+            Rectangle oldBounds = spatialIndex.getBounds(go);
+            Rectangle newBounds = go.getSelectionBounds();
+            spatialIndex.update(go, newBounds);
+            notifyListeners(oldBounds == null ? newBounds : oldBounds.union(newBounds));
         }
 
         @Override
         public void graphicalObjectSelectionChanged(GraphicalObject go) {
-            if (go.isSelected() && !selectedObjects.contains(go)) {
-                selectedObjects.add(go);
-            } else if (!go.isSelected()) {
-                selectedObjects.remove(go);
+            if (go.isSelected()) {
+                select(go);
+            } else {
+                deselect(go);
             }
-            notifyListeners();
+            markDirty(spatialIndex.getBounds(go));
+            if (selectedObjects.size() <= 2) {
+                for (GraphicalObject selected : selectedObjects.keySet()) {
+                    markDirty(spatialIndex.getBounds(selected));
+                }
+            }
+            fireDocumentChange();
         }
     };
 
     public DocumentModel() {
+        this(new QuadTree());
+    }
+
+    public DocumentModel(SpatialIndex spatialIndex) {
+        this.spatialIndex = spatialIndex;
     }
 
     public void clear() {
-        for (GraphicalObject obj : objects) {
+        for (GraphicalObject obj : roObjects) {
             obj.removeGraphicalObjectListener(goListener);
         }
         objects.clear();
-        selectedObjects.clear();
+        clearSelection();
+        spatialIndex.clear();
+        history.clear();
+        notifyListeners();
+    }
+
+    public void setGraphicalObjects(List<GraphicalObject> newObjects) {
+        for (GraphicalObject obj : roObjects) {
+            obj.removeGraphicalObjectListener(goListener);
+        }
+        objects.clear();
+        clearSelection();
+        spatialIndex.clear();
+
+        for (GraphicalObject obj : newObjects) {
+            objects.add(obj);
+            spatialIndex.insert(obj, obj.getSelectionBounds());
+            obj.addGraphicalObjectListener(goListener);
+            if (obj.isSelected()) {
+                select(obj);
+            }
+        }
+        history.clear();
         notifyListeners();
     }
 
     public void addGraphicalObject(GraphicalObject obj) {
-        objects.add(obj);
+        addGraphicalObject(objects.size(), obj);
+    }
+
+    public void addGraphicalObject(int index, GraphicalObject obj) {
+        objects.add(index, obj);
+        spatialIndex.insert(obj, obj.getSelectionBounds());
         obj.addGraphicalObjectListener(goListener);
         if (obj.isSelected()) {
-            selectedObjects.add(obj);
+            select(obj);
         }
-        notifyListeners();
+        record(new AddObjectCommand(obj, index));
+        notifyListeners(spatialIndex.getBounds(obj));
     }
 
     public void removeGraphicalObject(GraphicalObject obj) {
+        int index = objects.remove(obj);
+        if (index < 0) {
+            return;
+        }
+        Rectangle bounds = spatialIndex.getBounds(obj);
         obj.removeGraphicalObjectListener(goListener);
-        objects.remove(obj);
-        selectedObjects.remove(obj);
-        notifyListeners();
+        deselect(obj);
+        spatialIndex.remove(obj);
+        record(new RemoveObjectCommand(obj, index));
+        notifyListeners(bounds);
+    }
+
+    public void addAll(List<GraphicalObject> added) {
+        replace(Collections.emptyList(), added);
+    }
+
+    public void removeAll(Collection<GraphicalObject> removed) {
+        replace(removed, Collections.emptyList());
+    }
+
+    public void replace(Collection<GraphicalObject> oldObjects, List<GraphicalObject> newObjects) {
+        Set<GraphicalObject> unique = Collections.newSetFromMap(new IdentityHashMap<>());
+        unique.addAll(oldObjects);
+        GraphicalObject[] candidates = unique.toArray(new GraphicalObject[0]);
+        int count = candidates.length;
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            int index = objects.indexOf(candidates[i]);
+            if (index < 0) {
+                throw new IllegalArgumentException("Object is not in the document: " + candidates[i].getShapeName());
+            }
+            keys[i] = ((long) index << 32) | i;
+        }
+        Set<GraphicalObject> addedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (GraphicalObject obj : newObjects) {
+            if (!addedSet.add(obj) || (objects.contains(obj) && !unique.contains(obj))) {
+                throw new IllegalArgumentException("Object is already in the document: " + obj.getShapeName());
+            }
+        }
+        Arrays.sort(keys);
+
+        GraphicalObject[] removed = new GraphicalObject[count];
+        int[] removedIndices = new int[count];
+        for (int i = 0; i < count; i++) {
+            removed[i] = candidates[(int) keys[i]];
+            removedIndices[i] = (int) (keys[i] >>> 32);
+        }
+
+        GraphicalObject[] added = newObjects.toArray(new GraphicalObject[0]);
+        int insertAt = count == 0 ? objects.size() : removedIndices[count - 1] - count + 1;
+        int[] addedIndices = new int[added.length];
+        for (int i = 0; i < added.length; i++) {
+            addedIndices[i] = insertAt + i;
+        }
+        replace(removed, removedIndices, added, addedIndices);
+    }
+
+    void replace(GraphicalObject[] removed, int[] removedIndices, GraphicalObject[] added, int[] addedIndices) {
+        if (removed.length == 0 && added.length == 0) {
+            return;
+        }
+        transferChildren(removed, added);
+        Rectangle dirty = null;
+        for (int i = removed.length - 1; i >= 0; i--) {
+            GraphicalObject obj = removed[i];
+            Rectangle bounds = spatialIndex.getBounds(obj);
+            if (bounds != null) {
+                dirty = dirty == null ? bounds : dirty.union(bounds);
+            }
+            objects.remove(obj);
+            obj.removeGraphicalObjectListener(goListener);
+            deselect(obj);
+            spatialIndex.remove(obj);
+        }
+        for (int i = 0; i < added.length; i++) {
+            GraphicalObject obj = added[i];
+            objects.add(addedIndices[i], obj);
+            Rectangle bounds = obj.getSelectionBounds();
+            spatialIndex.insert(obj, bounds);
+            obj.addGraphicalObjectListener(goListener);
+            if (obj.isSelected()) {
+                select(obj);
+            }
+            dirty = dirty == null ? bounds : dirty.union(bounds);
+        }
+        record(new ReplaceCommand(removed, removedIndices, added, addedIndices));
+        notifyListeners(dirty);
+    }
+
+    private static void transferChildren(GraphicalObject[] removed, GraphicalObject[] added) {
+        Set<GraphicalObject> addedSet = null;
+        for (GraphicalObject obj : removed) {
+            if (obj instanceof CompositeShape) {
+                if (addedSet == null) {
+                    addedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+                    addedSet.addAll(Arrays.asList(added));
+                }
+                CompositeShape composite = (CompositeShape) obj;
+                for (int i = 0; i < composite.getNumberOfChildren(); i++) {
+                    if (addedSet.contains(composite.getChild(i))) {
+                        composite.detachChildren();
+                        break;
+                    }
+                }
+            }
+        }
+        for (GraphicalObject obj : added) {
+            if (obj instanceof CompositeShape) {
+                ((CompositeShape) obj).attachChildren();
+            }
+        }
+    }
+
+    public void translate(List<GraphicalObject> targets, Point delta) {
+        translate(targets, delta.getX(), delta.getY());
+    }
+
+    public void translate(List<GraphicalObject> targets, int dx, int dy) {
+        if (targets.isEmpty() || (dx == 0 && dy == 0)) {
+            return;
+        }
+        GraphicalObject[] moved = targets.toArray(new GraphicalObject[0]);
+        batch(() -> {
+            for (GraphicalObject obj : moved) {
+                obj.translate(dx, dy);
+            }
+            record(new TranslateCommand(moved, dx, dy));
+        });
+    }
+
+    public void setHotPoint(GraphicalObject obj, int index, Point point) {
+        setHotPoint(obj, index, point.getX(), point.getY());
+    }
+
+    public void setHotPoint(GraphicalObject obj, int index, int x, int y) {
+        int fromX = obj.getHotPointX(index);
+        int fromY = obj.getHotPointY(index);
+        obj.setHotPoint(index, x, y);
+        record(new MoveHotPointCommand(obj, index, fromX, fromY, x, y));
+    }
+
+    public CommandHistory getHistory() {
+        return history;
+    }
+
+    public boolean undo() {
+        return replay(history.popUndo(), true);
+    }
+
+    public boolean redo() {
+        return replay(history.popRedo(), false);
+    }
+
+    private boolean replay(Command command, boolean undo) {
+        if (command == null) {
+            return false;
+        }
+        replaying = true;
+        try {
+            batch(() -> {
+                if (undo) {
+                    command.undo(this);
+                } else {
+                    command.redo(this);
+                }
+            });
+        } finally {
+            replaying = false;
+        }
+        return true;
+    }
+
+    private void record(Command command) {
+        if (replaying) {
+            return;
+        }
+        if (batchDepth > 0) {
+            pendingCommands.add(command);
+        } else {
+            history.record(command);
+        }
     }
 
     public List<GraphicalObject> list() {
@@ -68,40 +302,262 @@ public class DocumentModel {
     }
 
     public void notifyListeners() {
+        fullChange = true;
+        fireDocumentChange();
+    }
+
+    public void notifyListeners(Rectangle region) {
+        markDirty(region);
+        fireDocumentChange();
+    }
+
+    private void markDirty(Rectangle region) {
+        if (region == null) {
+            fullChange = true;
+        } else {
+            dirtyRegion = dirtyRegion == null ? region : dirtyRegion.union(region);
+        }
+    }
+
+    private void fireDocumentChange() {
+        if (batchDepth > 0 || (!fullChange && dirtyRegion == null)) {
+            return;
+        }
+        DocumentChange change = fullChange ? DocumentChange.ALL : new DocumentChange(dirtyRegion);
+        fullChange = false;
+        dirtyRegion = null;
         for (DocumentModelListener l : listeners) {
-            l.documentChange();
+            l.documentChange(change);
+        }
+    }
+
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    public void commitBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("No batch in progress");
+        }
+        if (--batchDepth == 0) {
+            if (pendingCommands.size() == 1) {
+                history.record(pendingCommands.get(0));
+            } else if (!pendingCommands.isEmpty()) {
+                history.record(new CompoundCommand(pendingCommands));
+            }
+            pendingCommands.clear();
+            fireDocumentChange();
+        }
+    }
+
+    public void batch(Runnable changes) {
+        beginBatch();
+        try {
+            changes.run();
+        } finally {
+            commitBatch();
         }
     }
 
     public List<GraphicalObject> getSelectedObjects() {
+        if (roSelectedObjects == null) {
+            List<GraphicalObject> selected = new ArrayList<>(selectedObjects.keySet());
+            selected.sort(Comparator.comparingLong(selectedObjects::get));
+            roSelectedObjects = Collections.unmodifiableList(selected);
+        }
         return roSelectedObjects;
     }
 
+    public boolean isSelected(GraphicalObject go) {
+        return selectedObjects.containsKey(go);
+    }
+
+    private void select(GraphicalObject go) {
+        if (!selectedObjects.containsKey(go)) {
+            selectedObjects.put(go, selectionSequence++);
+            roSelectedObjects = null;
+        }
+    }
+
+    private void deselect(GraphicalObject go) {
+        if (selectedObjects.remove(go) != null) {
+            roSelectedObjects = null;
+        }
+    }
+
+    private void clearSelection() {
+        selectedObjects.clear();
+        roSelectedObjects = null;
+    }
+
     public void increaseZ(GraphicalObject go) {
-        int index = objects.indexOf(go);
-        if (index < objects.size() - 1) {
-            Collections.swap(objects, index, index + 1);
-            notifyListeners();
+        GraphicalObject other = objects.swapWithNext(go);
+        if (other != null) {
+            record(new ZOrderCommand(go, true));
+            notifyListeners(spatialIndex.getBounds(go).union(spatialIndex.getBounds(other)));
         }
     }
 
     public void decreaseZ(GraphicalObject go) {
-        int index = objects.indexOf(go);
-        if (index > 0) {
-            Collections.swap(objects, index, index - 1);
-            notifyListeners();
+        GraphicalObject other = objects.swapWithPrevious(go);
+        if (other != null) {
+            record(new ZOrderCommand(go, false));
+            notifyListeners(spatialIndex.getBounds(go).union(spatialIndex.getBounds(other)));
+        }
+    }
+
+    public void moveZ(GraphicalObject go, int index) {
+        int from = objects.remove(go);
+        if (from < 0) {
+            return;
+        }
+        objects.add(index, go);
+        if (from != index) {
+            record(new MoveZCommand(go, from, index));
+            notifyListeners(spatialIndex.getBounds(go));
         }
     }
 
+    public void bringSelectionForward() {
+        List<GraphicalObject> selected = selectionInZOrder();
+        batch(() -> {
+            for (int i = selected.size() - 1; i >= 0; i--) {
+                GraphicalObject go = selected.get(i);
+                int index = objects.indexOf(go);
+                if (index < objects.size() - 1 && !isSelected(objects.get(index + 1))) {
+                    increaseZ(go);
+                }
+            }
+        });
+    }
+
+    public void sendSelectionBackward() {
+        List<GraphicalObject> selected = selectionInZOrder();
+        batch(() -> {
+            for (GraphicalObject go : selected) {
+                int index = objects.indexOf(go);
+                if (index > 0 && !isSelected(objects.get(index - 1))) {
+                    decreaseZ(go);
+                }
+            }
+        });
+    }
+
+    public void bringSelectionToFront() {
+        List<GraphicalObject> selected = selectionInZOrder();
+        batch(() -> {
+            for (GraphicalObject go : selected) {
+                moveZ(go, objects.size() - 1);
+            }
+        });
+    }
+
+    public void sendSelectionToBack() {
+        List<GraphicalObject> selected = selectionInZOrder();
+        batch(() -> {
+            for (int i = selected.size() - 1; i >= 0; i--) {
+                moveZ(selected.get(i), 0);
+            }
+        });
+    }
+
+    private List<GraphicalObject> selectionInZOrder() {
+        List<GraphicalObject> selected = new ArrayList<>(selectedObjects.keySet());
+        sortByZOrder(selected);
+        return selected;
+    }
+
+    public void sortByZOrder(List<GraphicalObject> objects) {
+        long[] keys = new long[objects.size()];
+        if (isParallel(keys.length)) {
+            IntStream.range(0, keys.length).parallel()
+                    .forEach(i -> keys[i] = ((long) this.objects.indexOf(objects.get(i)) << 32) | i);
+            Arrays.parallelSort(keys);
+        } else {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = ((long) this.objects.indexOf(objects.get(i)) << 32) | i;
+            }
+            Arrays.sort(keys);
+        }
+        GraphicalObject[] sorted = new GraphicalObject[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = objects.get((int) keys[i]);
+        }
+        for (int i = 0; i < sorted.length; i++) {
+            objects.set(i, sorted[i]);
+        }
+    }
+
+    public List<GraphicalObject> findGraphicalObjects(Rectangle region) {
+        List<GraphicalObject> candidates = new ArrayList<>();
+        spatialIndex.query(region, candidates);
+        sortByZOrder(candidates);
+        return candidates;
+    }
+
+    public List<GraphicalObject> findGraphicalObjects(Rectangle region, Predicate<GraphicalObject> filter) {
+        if (!isParallel(objects.size())) {
+            List<GraphicalObject> candidates = findGraphicalObjects(region);
+            candidates.removeIf(filter.negate());
+            return candidates;
+        }
+        List<GraphicalObject> candidates = new ArrayList<>();
+        spatialIndex.queryParallel(region, candidates);
+        if (isParallel(candidates.size())) {
+            candidates = candidates.parallelStream().filter(filter).collect(Collectors.toCollection(ArrayList::new));
+        } else {
+            candidates.removeIf(filter.negate());
+        }
+        sortByZOrder(candidates);
+        return candidates;
+    }
+
+    public List<GraphicalObject> findContainedGraphicalObjects(Rectangle region) {
+        return findGraphicalObjects(region, obj -> region.contains(obj.getBoundingBox()));
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    private boolean isParallel(int candidates) {
+        int parallelism = ForkJoinTask.inForkJoinPool()
+                ? ForkJoinTask.getPool().getParallelism()
+                : ForkJoinPool.getCommonPoolParallelism();
+        return parallelism > 1 && candidates >= parallelThreshold;
+    }
+
+    public GraphicalObject findTopmostGraphicalObject(Point mousePoint, double maxDistance) {
+        List<GraphicalObject> candidates = findGraphicalObjects(Rectangle.around(mousePoint, (int) Math.ceil(maxDistance)));
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            GraphicalObject obj = candidates.get(i);
+            if (obj.selectionDistance(mousePoint) <= maxDistance) {
+                return obj;
+            }
+        }
+        return null;
+    }
+
     public GraphicalObject findSelectedGraphicalObject(Point mousePoint) {
+        List<GraphicalObject> candidates = findGraphicalObjects(
+                Rectangle.around(mousePoint, (int) Math.ceil(SELECTION_PROXIMITY)));
+        double[] distances = new double[candidates.size()];
+        IntStream indices = IntStream.range(0, distances.length);
+        if (isParallel(distances.length)) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> distances[i] = candidates.get(i).selectionDistance(mousePoint));
+
         GraphicalObject selected = null;
         double minDistance = SELECTION_PROXIMITY;
-
-        for (GraphicalObject obj : objects) {
-            double distance = obj.selectionDistance(mousePoint);
-            if (distance < minDistance) {
-                minDistance = distance;
-                selected = obj;
+        for (int i = 0; i < distances.length; i++) {
+            if (distances[i] < minDistance) {
+                minDistance = distances[i];
+                selected = candidates.get(i);
             }
         }
 
@@ -110,12 +566,13 @@ public class DocumentModel {
 
     public int findSelectedHotPoint(GraphicalObject object, Point mousePoint) {
         int selectedIndex = -1;
-        double minDistance = SELECTION_PROXIMITY;
+        double minDistanceSquared = SELECTION_PROXIMITY * SELECTION_PROXIMITY;
 
         for (int i = 0; i < object.getNumberOfHotPoints(); i++) {
-            double distance = object.getHotPointDistance(i, mousePoint);
-            if (distance < minDistance) {
-                minDistance = distance;
+            long distanceSquared = GeometryUtil.distanceSquared(
+                    object.getHotPointX(i), object.getHotPointY(i), mousePoint.getX(), mousePoint.getY());
+            if (distanceSquared < minDistanceSquared) {
+                minDistanceSquared = distanceSquared;
                 selectedIndex = i;
             }
         }
@@ -1,3 +1,3 @@
 public interface DocumentModelListener {
-    void documentChange();
-}
\ No newline at end of file
+    void documentChange(DocumentChange change);
+}
@@ -0,0 +1,161 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class DrawingCanvas extends JComponent implements DocumentModelListener {
+    private static final int DECORATION_MARGIN = 4;
+
+    private final DocumentModel model;
+    private final Supplier<State> currentState;
+    private final Viewport viewport = new Viewport();
+    private final LevelOfDetail levelOfDetail = new LevelOfDetail();
+    private final TiledRasterizer rasterizer = new TiledRasterizer();
+    private BufferedImage staticLayer;
+    private boolean tiledRendering;
+
+    public DrawingCanvas(DocumentModel model, Supplier<State> currentState) {
+        this.model = model;
+        this.currentState = currentState;
+    }
+
+    public LevelOfDetail getLevelOfDetail() {
+        return levelOfDetail;
+    }
+
+    public boolean isTiledRendering() {
+        return tiledRendering;
+    }
+
+    public void setTiledRendering(boolean tiledRendering) {
+        this.tiledRendering = tiledRendering;
+        viewportChanged();
+    }
+
+    public Point toDocument(int screenX, int screenY) {
+        return viewport.toDocument(screenX, screenY);
+    }
+
+    public int toDocumentX(int screenX) {
+        return viewport.toDocumentX(screenX);
+    }
+
+    public int toDocumentY(int screenY) {
+        return viewport.toDocumentY(screenY);
+    }
+
+    public void zoom(double factor, int anchorX, int anchorY) {
+        viewport.zoom(factor, anchorX, anchorY);
+        viewportChanged();
+    }
+
+    public void pan(int dx, int dy) {
+        viewport.pan(dx, dy);
+        viewportChanged();
+    }
+
+    public void resetView() {
+        viewport.reset();
+        viewportChanged();
+    }
+
+    private void viewportChanged() {
+        staticLayer = null;
+        repaint();
+    }
+
+    @Override
+    public void documentChange(DocumentChange change) {
+        if (change.isFullChange()) {
+            repaint();
+        } else {
+            java.awt.Rectangle region = viewport.toScreen(change.getDirtyRegion().grow(documentMargin()));
+            repaint(region.x - 1, region.y - 1, region.width + 2, region.height + 2);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D)g;
+        State state = currentState.get();
+        Rectangle visible = visibleRegion(g.getClipBounds());
+
+        if (state.isEditingSelection()) {
+            if (staticLayer == null || staticLayer.getWidth() != getWidth() || staticLayer.getHeight() != getHeight()) {
+                staticLayer = renderStaticLayer(state);
+            }
+            g2d.drawImage(staticLayer, 0, 0, null);
+            g2d.transform(viewport.getTransform());
+            G2DRendererImpl r = new G2DRendererImpl(g2d);
+            for (GraphicalObject obj : visibleSelectedObjects(visible)) {
+                levelOfDetail.render(obj, r, viewport.getScale());
+                state.afterDraw(r, obj);
+            }
+            state.afterDraw(r);
+        } else if (tiledRendering) {
+            staticLayer = null;
+            java.awt.Rectangle clip = g.getClipBounds() != null ? g.getClipBounds() : new java.awt.Rectangle(0, 0, getWidth(), getHeight());
+            List<GraphicalObject> objects = model.findGraphicalObjects(visible);
+            g2d.drawImage(rasterizer.render(objects, clip.width, clip.height, viewport.getScale(),
+                    viewport.getOffsetX() - clip.x, viewport.getOffsetY() - clip.y, null), clip.x, clip.y, null);
+            g2d.transform(viewport.getTransform());
+            G2DRendererImpl r = new G2DRendererImpl(g2d);
+            for (GraphicalObject obj : objects) {
+                state.afterDraw(r, obj);
+            }
+            state.afterDraw(r);
+        } else {
+            staticLayer = null;
+            g2d.transform(viewport.getTransform());
+            G2DRendererImpl r = new G2DRendererImpl(g2d);
+            for (GraphicalObject obj : model.findGraphicalObjects(visible)) {
+                levelOfDetail.render(obj, r, viewport.getScale());
+                state.afterDraw(r, obj);
+            }
+            state.afterDraw(r);
+        }
+    }
+
+    private BufferedImage renderStaticLayer(State state) {
+        BufferedImage layer = getGraphicsConfiguration() != null
+                ? getGraphicsConfiguration().createCompatibleImage(Math.max(1, getWidth()), Math.max(1, getHeight()), Transparency.TRANSLUCENT)
+                : new BufferedImage(Math.max(1, getWidth()), Math.max(1, getHeight()), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = layer.createGraphics();
+        try {
+            g2d.transform(viewport.getTransform());
+            G2DRendererImpl r = new G2DRendererImpl(g2d);
+            for (GraphicalObject obj : model.findGraphicalObjects(visibleRegion(null))) {
+                if (!obj.isSelected()) {
+                    levelOfDetail.render(obj, r, viewport.getScale());
+                    state.afterDraw(r, obj);
+                }
+            }
+        } finally {
+            g2d.dispose();
+        }
+        return layer;
+    }
+
+    private List<GraphicalObject> visibleSelectedObjects(Rectangle visible) {
+        List<GraphicalObject> selected = new ArrayList<>();
+        for (GraphicalObject obj : model.getSelectedObjects()) {
+            if (obj.getBoundingBox().intersects(visible)) {
+                selected.add(obj);
+            }
+        }
+        model.sortByZOrder(selected);
+        return selected;
+    }
+
+    private Rectangle visibleRegion(java.awt.Rectangle clip) {
+        java.awt.Rectangle screen = clip != null ? clip : new java.awt.Rectangle(0, 0, getWidth(), getHeight());
+        return viewport.toDocument(screen.x, screen.y, screen.width, screen.height).grow(documentMargin());
+    }
+
+    private int documentMargin() {
+        return DECORATION_MARGIN + (int) Math.ceil(1 / viewport.getScale());
+    }
+}
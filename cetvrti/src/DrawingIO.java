@@ -0,0 +1,150 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+public class DrawingIO {
+    private static final int PROGRESS_INTERVAL = 4096;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final boolean COLUMNAR = Boolean.getBoolean("cetvrti.columnar");
+
+    public static List<GraphicalObject> prototypes() {
+        List<GraphicalObject> prototypes = new ArrayList<>();
+        prototypes.add(new LineSegment());
+        prototypes.add(new Oval());
+        prototypes.add(new CompositeShape(new ArrayList<>()));
+        return prototypes;
+    }
+
+    public static List<GraphicalObject> prototypes(ShapeStore store) {
+        if (store == null) {
+            return prototypes();
+        }
+        List<GraphicalObject> prototypes = store.prototypes();
+        prototypes.add(new CompositeShape(new ArrayList<>()));
+        return prototypes;
+    }
+
+    public static boolean isBinary(String fileName) {
+        return fileName.toLowerCase().endsWith(BinaryDrawingFormat.EXTENSION);
+    }
+
+    public static void save(Collection<GraphicalObject> objects, String fileName) throws IOException {
+        try (DrawingOutput out = openOutput(fileName)) {
+            for (GraphicalObject obj : objects) {
+                obj.save(out);
+            }
+        }
+    }
+
+    public static void exportSVG(Collection<GraphicalObject> objects, String fileName) throws IOException {
+        SVGRendererImpl r = new SVGRendererImpl(fileName);
+        try {
+            for (GraphicalObject obj : objects) {
+                obj.render(r);
+            }
+        } finally {
+            r.close();
+        }
+    }
+
+    private static DrawingOutput openOutput(String fileName) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(fileName),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        if (isBinary(fileName)) {
+            return new BinaryDrawingOutput(channel, prototypes());
+        }
+        return new TextDrawingOutput(new BufferedWriter(
+                Channels.newWriter(channel, StandardCharsets.US_ASCII), WRITE_BUFFER_SIZE));
+    }
+
+    public static List<GraphicalObject> load(String fileName) throws IOException {
+        return load(fileName, null);
+    }
+
+    public static List<GraphicalObject> load(String fileName, LoadMonitor monitor) throws IOException {
+        return load(fileName, monitor, COLUMNAR ? new ShapeStore() : null);
+    }
+
+    public static List<GraphicalObject> load(String fileName, LoadMonitor monitor, ShapeStore store) throws IOException {
+        Path path = Paths.get(fileName);
+        List<GraphicalObject> prototypes = prototypes(store);
+        Deque<GraphicalObject> stack = isBinary(fileName)
+                ? loadBinary(path, monitor, prototypes)
+                : loadText(path, monitor, prototypes);
+
+        List<GraphicalObject> objects = new ArrayList<>(stack.size());
+        Iterator<GraphicalObject> bottomUp = stack.descendingIterator();
+        while (bottomUp.hasNext()) {
+            objects.add(bottomUp.next());
+        }
+        return objects;
+    }
+
+    private static Deque<GraphicalObject> loadText(Path path, LoadMonitor monitor,
+                                                   List<GraphicalObject> prototypes) throws IOException {
+        Deque<GraphicalObject> stack = new ArrayDeque<>();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            DrawingTokenizer tokenizer = new DrawingTokenizer(channel);
+            int rows = 0;
+
+            while (tokenizer.nextRow()) {
+                GraphicalObject prototype = tokenizer.nextShape(prototypes);
+                if (prototype != null) {
+                    prototype.load(stack, tokenizer);
+                }
+
+                if (monitor != null && ++rows % PROGRESS_INTERVAL == 0) {
+                    reportProgress(monitor, tokenizer.getPosition(), size);
+                }
+            }
+            reportProgress(monitor, size, size);
+        }
+        return stack;
+    }
+
+    private static Deque<GraphicalObject> loadBinary(Path path, LoadMonitor monitor,
+                                                     List<GraphicalObject> prototypes) throws IOException {
+        Deque<GraphicalObject> stack = new ArrayDeque<>();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Binary drawing is too large to map: " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            BinaryDrawingInput input = new BinaryDrawingInput(buffer, prototypes);
+            int shapes = 0;
+
+            while (input.hasNextShape()) {
+                input.nextShape().load(stack, input);
+
+                if (monitor != null && ++shapes % PROGRESS_INTERVAL == 0) {
+                    reportProgress(monitor, input.getPosition(), size);
+                }
+            }
+            reportProgress(monitor, size, size);
+        }
+        return stack;
+    }
+
+    private static void reportProgress(LoadMonitor monitor, long position, long size) {
+        if (monitor == null) {
+            return;
+        }
+        if (monitor.isCancelled()) {
+            throw new CancellationException();
+        }
+        monitor.progress(position, size);
+    }
+}
@@ -0,0 +1,5 @@
+import java.io.IOException;
+
+public interface DrawingInput {
+    int nextInt() throws IOException;
+}
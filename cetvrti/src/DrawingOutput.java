@@ -0,0 +1,8 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface DrawingOutput extends Closeable {
+    void beginShape(String shapeID) throws IOException;
+    void writeInt(int value) throws IOException;
+    void endShape() throws IOException;
+}
@@ -0,0 +1,138 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+
+public class DrawingTokenizer implements DrawingInput {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_WORD_LENGTH = 64;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] word = new byte[MAX_WORD_LENGTH];
+    private int wordLength;
+    private long position;
+    private boolean inRow;
+    private boolean endOfInput;
+
+    public DrawingTokenizer(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip();
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public boolean nextRow() throws IOException {
+        int c;
+        if (inRow) {
+            while ((c = peek()) != -1 && c != '\n') {
+                skip();
+            }
+        }
+        while ((c = peek()) != -1 && Character.isWhitespace(c)) {
+            skip();
+        }
+        inRow = c != -1;
+        return inRow;
+    }
+
+    public GraphicalObject nextShape(List<GraphicalObject> prototypes) throws IOException {
+        wordLength = 0;
+        int c;
+        while ((c = peek()) != -1 && !Character.isWhitespace(c)) {
+            if (wordLength < MAX_WORD_LENGTH) {
+                word[wordLength] = (byte) c;
+            }
+            wordLength++;
+            skip();
+        }
+
+        for (GraphicalObject prototype : prototypes) {
+            if (wordEquals(prototype.getShapeID())) {
+                return prototype;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        int c;
+        while ((c = peek()) == ' ' || c == '\t' || c == '\r' || c == '\f') {
+            skip();
+        }
+        if (c == -1 || c == '\n') {
+            throw new NumberFormatException("Missing value at byte " + position);
+        }
+
+        boolean negative = c == '-';
+        if (c == '-' || c == '+') {
+            skip();
+            c = peek();
+        }
+
+        long value = 0;
+        int digits = 0;
+        while (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("Value out of range at byte " + position);
+            }
+            digits++;
+            skip();
+            c = peek();
+        }
+        if (digits == 0 || (c != -1 && !Character.isWhitespace(c))) {
+            throw new NumberFormatException("Invalid number at byte " + position);
+        }
+
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value out of range at byte " + position);
+        }
+        return (int) value;
+    }
+
+    private boolean wordEquals(String s) {
+        if (s.length() != wordLength) {
+            return false;
+        }
+        for (int i = 0; i < wordLength; i++) {
+            if (word[i] != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int peek() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get(buffer.position()) & 0xff;
+    }
+
+    private void skip() {
+        buffer.position(buffer.position() + 1);
+        position++;
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        return true;
+    }
+}
@@ -1,119 +1,119 @@
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 public class EraserState implements State {
+    private static final int ERASER_RADIUS = 5;
+    private static final double TRAIL_TOLERANCE = 2;
+    private static final int MAX_TRAIL_POINTS = 2048;
 
     private DocumentModel model;
-    private List<Point> eraserPath;
+    private SimplifiedPath trail;
+    private Point lastPoint;
+    private boolean firstSegment;
+    private List<GraphicalObject> hits;
+    private Set<GraphicalObject> hitSet;
+    private Rectangle trailBounds;
     private boolean isErasing;
 
     public EraserState(DocumentModel model) {
         this.model = model;
-        this.eraserPath = new ArrayList<>();
+        this.trail = new SimplifiedPath(TRAIL_TOLERANCE, MAX_TRAIL_POINTS);
+        this.hits = new ArrayList<>();
+        this.hitSet = Collections.newSetFromMap(new IdentityHashMap<>());
         this.isErasing = false;
     }
 
     @Override
     public void mouseDown(Point mousePoint, boolean shiftDown, boolean ctrlDown) {
-        eraserPath.clear();
-        eraserPath.add(mousePoint);
+        reset();
+        trail.add(mousePoint.getX(), mousePoint.getY());
+        lastPoint = mousePoint;
+        firstSegment = true;
         isErasing = true;
+        trailBounds = Rectangle.around(mousePoint, 0);
     }
 
     @Override
     public void mouseUp(Point mousePoint, boolean shiftDown, boolean ctrlDown) {
-        if (isErasing && eraserPath.size() > 1) {
-            performErasure();
-        }
-
-        eraserPath.clear();
-        isErasing = false;
-        model.notifyListeners();
+        model.batch(() -> {
+            if (isErasing && !firstSegment) {
+                performErasure();
+            }
+            reset();
+        });
     }
 
     @Override
-    public void mouseDragged(Point mousePoint) {
+    public void mouseDragged(int x, int y) {
         if (isErasing) {
-            eraserPath.add(mousePoint);
-            model.notifyListeners();
+            Point last = lastPoint;
+            Point mousePoint = new Point(x, y);
+            Point tail = new Point(trail.getXs()[trail.size() - 1], trail.getYs()[trail.size() - 1]);
+            int modified = trail.add(mousePoint.getX(), mousePoint.getY());
+
+            Rectangle segment = segmentBounds(last, mousePoint);
+            Rectangle dirty = modified == 0 ? trailBounds.union(segment)
+                    : segment.union(Rectangle.around(tail, 0)).union(vertexBounds(modified - 1));
+            trailBounds = trailBounds.union(segment);
+            for (GraphicalObject obj : model.findGraphicalObjects(segment.grow(ERASER_RADIUS),
+                    obj -> !hitSet.contains(obj) && segmentHitsObject(last, mousePoint, obj))) {
+                hitSet.add(obj);
+                hits.add(obj);
+                dirty = dirty.union(obj.getBoundingBox());
+            }
+            lastPoint = mousePoint;
+            firstSegment = false;
+            model.notifyListeners(dirty);
         }
     }
 
     private void performErasure() {
-        List<GraphicalObject> objectsToRemove = new ArrayList<>();
-
-        for (GraphicalObject obj : model.list()) {
-            if (doesEraserPathIntersectObject(obj)) {
-                objectsToRemove.add(obj);
-            }
-        }
-
-        for (GraphicalObject obj : objectsToRemove) {
-            model.removeGraphicalObject(obj);
-        }
+        model.removeAll(hits);
     }
 
-    private boolean doesEraserPathIntersectObject(GraphicalObject obj) {
+    private boolean segmentHitsObject(Point p1, Point p2, GraphicalObject obj) {
         Rectangle bbox = obj.getBoundingBox();
-
-        for (int i = 0; i < eraserPath.size() - 1; i++) {
-            Point p1 = eraserPath.get(i);
-            Point p2 = eraserPath.get(i + 1);
-
-            if (lineIntersectsRectangle(p1, p2, bbox)) {
-                return true;
-            }
+        if (GeometryUtil.lineIntersectsRectangle(p1.getX(), p1.getY(), p2.getX(), p2.getY(), bbox)) {
+            return true;
         }
-
-        for (Point point : eraserPath) {
-            if (obj.selectionDistance(point) <= 5) {
-                return true;
-            }
+        if (firstSegment && obj.selectionDistance(p1) <= ERASER_RADIUS) {
+            return true;
         }
-
-        return false;
+        return obj.selectionDistance(p2) <= ERASER_RADIUS;
     }
 
-    private boolean lineIntersectsRectangle(Point p1, Point p2, Rectangle rect) {
-        Point topLeft = new Point(rect.getX(), rect.getY());
-        Point topRight = new Point(rect.getX() + rect.getWidth(), rect.getY());
-        Point bottomLeft = new Point(rect.getX(), rect.getY() + rect.getHeight());
-        Point bottomRight = new Point(rect.getX() + rect.getWidth(), rect.getY() + rect.getHeight());
-
-        return lineSegmentsIntersect(p1, p2, topLeft, topRight) ||
-                lineSegmentsIntersect(p1, p2, topRight, bottomRight) ||
-                lineSegmentsIntersect(p1, p2, bottomRight, bottomLeft) ||
-                lineSegmentsIntersect(p1, p2, bottomLeft, topLeft);
+    private static Rectangle segmentBounds(Point p1, Point p2) {
+        int minX = Math.min(p1.getX(), p2.getX());
+        int minY = Math.min(p1.getY(), p2.getY());
+        return new Rectangle(minX, minY, Math.abs(p2.getX() - p1.getX()), Math.abs(p2.getY() - p1.getY()));
     }
 
-    private boolean lineSegmentsIntersect(Point p1, Point q1, Point p2, Point q2) {
-        int o1 = orientation(p1, q1, p2);
-        int o2 = orientation(p1, q1, q2);
-        int o3 = orientation(p2, q2, p1);
-        int o4 = orientation(p2, q2, q1);
-
-        if (o1 != o2 && o3 != o4) return true;
-
-        if (o1 == 0 && onSegment(p1, p2, q1)) return true;
-        if (o2 == 0 && onSegment(p1, q2, q1)) return true;
-        if (o3 == 0 && onSegment(p2, p1, q2)) return true;
-        if (o4 == 0 && onSegment(p2, q1, q2)) return true;
-
-        return false;
-    }
-
-    private int orientation(Point p, Point q, Point r) {
-        int val = (q.getY() - p.getY()) * (r.getX() - q.getX()) -
-                (q.getX() - p.getX()) * (r.getY() - q.getY());
-        if (val == 0) return 0;
-        return (val > 0) ? 1 : 2;
+    private Rectangle vertexBounds(int from) {
+        int[] xs = trail.getXs();
+        int[] ys = trail.getYs();
+        int minX = xs[from], minY = ys[from], maxX = minX, maxY = minY;
+        for (int i = from + 1; i < trail.size(); i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        return new Rectangle(minX, minY, maxX - minX, maxY - minY);
     }
 
-    private boolean onSegment(Point p, Point q, Point r) {
-        return q.getX() <= Math.max(p.getX(), r.getX()) &&
-                q.getX() >= Math.min(p.getX(), r.getX()) &&
-                q.getY() <= Math.max(p.getY(), r.getY()) &&
-                q.getY() >= Math.min(p.getY(), r.getY());
+    private void reset() {
+        if (trailBounds != null) {
+            model.notifyListeners(trailBounds);
+        }
+        trail.clear();
+        lastPoint = null;
+        hits.clear();
+        hitSet.clear();
+        trailBounds = null;
+        isErasing = false;
     }
 
     @Override
@@ -122,20 +122,26 @@ public class EraserState implements State {
 
     @Override
     public void afterDraw(Renderer r, GraphicalObject go) {
+        if (isErasing && hitSet.contains(go)) {
+            Rectangle bbox = go.getBoundingBox();
+            r.drawRect(bbox.getX(), bbox.getY(), bbox.getWidth(), bbox.getHeight());
+        }
     }
 
     @Override
     public void afterDraw(Renderer r) {
-        if (isErasing && eraserPath.size() > 1) {
-            for (int i = 0; i < eraserPath.size() - 1; i++) {
-                r.drawLine(eraserPath.get(i), eraserPath.get(i + 1));
-            }
+        if (isErasing && trail.size() > 1) {
+            r.drawPolyline(trail.getXs(), trail.getYs(), trail.size());
         }
     }
 
+    @Override
+    public boolean isEditingSelection() {
+        return false;
+    }
+
     @Override
     public void onLeaving() {
-        eraserPath.clear();
-        isErasing = false;
+        reset();
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,14 @@
 import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
 
 public class G2DRendererImpl implements Renderer {
     private Graphics2D g2d;
+    private final Ellipse2D.Double ellipse = new Ellipse2D.Double();
+    private final Path2D.Double outline = new Path2D.Double(Path2D.WIND_EVEN_ODD);
+    private Color color;
 
     public G2DRendererImpl(Graphics2D g2d) {
         this.g2d = g2d;
@@ -9,8 +16,37 @@ public class G2DRendererImpl implements Renderer {
 
     @Override
     public void drawLine(Point s, Point e) {
-        g2d.setColor(Color.BLUE);
-        g2d.drawLine(s.getX(), s.getY(), e.getX(), e.getY());
+        drawLine(s.getX(), s.getY(), e.getX(), e.getY());
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        setColor(Color.BLUE);
+        g2d.drawLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawPolyline(int[] xs, int[] ys, int count) {
+        setColor(Color.BLUE);
+        g2d.drawPolyline(xs, ys, count);
+    }
+
+    @Override
+    public void drawRect(int x, int y, int width, int height) {
+        setColor(Color.BLUE);
+        g2d.drawRect(x, y, width, height);
+    }
+
+    @Override
+    public void fillRects(int[] rects, int count) {
+        setColor(Color.BLUE);
+        for (int i = 0; i < count; i++) {
+            g2d.fillRect(rects[4 * i], rects[4 * i + 1], rects[4 * i + 2], rects[4 * i + 3]);
+        }
+        setColor(Color.RED);
+        for (int i = 0; i < count; i++) {
+            g2d.drawRect(rects[4 * i], rects[4 * i + 1], rects[4 * i + 2], rects[4 * i + 3]);
+        }
     }
 
     @Override
@@ -23,9 +59,53 @@ public class G2DRendererImpl implements Renderer {
             yPoints[i] = points[i].getY();
         }
 
-        g2d.setColor(Color.BLUE);
+        setColor(Color.BLUE);
         g2d.fillPolygon(xPoints, yPoints, points.length);
-        g2d.setColor(Color.RED);
+        setColor(Color.RED);
         g2d.drawPolygon(xPoints, yPoints, points.length);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        setColor(Color.BLUE);
+        g2d.fillRect(x, y, width, height);
+    }
+
+    public void drawImage(BufferedImage image, double x, double y, double scale) {
+        AffineTransform transform = AffineTransform.getTranslateInstance(x, y);
+        transform.scale(scale, scale);
+        g2d.drawImage(image, transform, null);
+    }
+
+    @Override
+    public double getScale() {
+        return Math.sqrt(Math.abs(g2d.getTransform().getDeterminant()));
+    }
+
+    @Override
+    public void fillEllipse(int centerX, int centerY, int radiusX, int radiusY) {
+        ellipse.setFrame(centerX - radiusX, centerY - radiusY, 2.0 * radiusX, 2.0 * radiusY);
+        setColor(Color.BLUE);
+        g2d.fill(ellipse);
+        setColor(Color.RED);
+        g2d.fill(outline(centerX, centerY, radiusX, radiusY));
+    }
+
+    private Shape outline(int centerX, int centerY, int radiusX, int radiusY) {
+        outline.reset();
+        ellipse.setFrame(centerX - radiusX - 0.5, centerY - radiusY - 0.5, 2.0 * radiusX + 1, 2.0 * radiusY + 1);
+        outline.append(ellipse, false);
+        if (radiusX > 0 && radiusY > 0) {
+            ellipse.setFrame(centerX - radiusX + 0.5, centerY - radiusY + 0.5, 2.0 * radiusX - 1, 2.0 * radiusY - 1);
+            outline.append(ellipse, false);
+        }
+        return outline;
+    }
+
+    private void setColor(Color newColor) {
+        if (newColor != color) {
+            g2d.setColor(newColor);
+            color = newColor;
+        }
+    }
+}
@@ -5,17 +5,17 @@ import java.awt.event.KeyListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionAdapter;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.*;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 public class GUI extends JFrame {
+    private static final double ZOOM_STEP = 1.1;
+
     private DocumentModel model;
-    private JComponent canvas;
+    private DrawingCanvas canvas;
     private State currentState;
+    private java.awt.Point panStart;
 
     public GUI(List<GraphicalObject> objects) {
         setTitle("Vector Graphics Editor");
@@ -46,6 +46,10 @@ public class GUI extends JFrame {
         svgExportButton.addActionListener(e -> exportToSVG());
         toolBar.add(svgExportButton);
 
+        JButton pngExportButton = new JButton("PNG Export");
+        pngExportButton.addActionListener(e -> exportToPNG());
+        toolBar.add(pngExportButton);
+
         JButton saveButton = new JButton("Pohrani");
         saveButton.addActionListener(e -> saveDrawing());
         toolBar.add(saveButton);
@@ -54,6 +58,22 @@ public class GUI extends JFrame {
         loadButton.addActionListener(e -> loadDrawing());
         toolBar.add(loadButton);
 
+        JButton undoButton = new JButton("Poništi");
+        undoButton.addActionListener(e -> model.undo());
+        toolBar.add(undoButton);
+
+        JButton redoButton = new JButton("Ponovi");
+        redoButton.addActionListener(e -> model.redo());
+        toolBar.add(redoButton);
+
+        JButton resetViewButton = new JButton("1:1");
+        resetViewButton.addActionListener(e -> canvas.resetView());
+        toolBar.add(resetViewButton);
+
+        JToggleButton tiledButton = new JToggleButton("Paralelno");
+        tiledButton.addActionListener(e -> canvas.setTiledRendering(tiledButton.isSelected()));
+        toolBar.add(tiledButton);
+
         toolBar.addSeparator();
 
         for (GraphicalObject obj : objects) {
@@ -65,33 +85,24 @@ public class GUI extends JFrame {
         }
         cp.add(toolBar, BorderLayout.NORTH);
 
-        canvas = new JComponent() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D)g;
-                Renderer r = new G2DRendererImpl(g2d);
-
-                for (GraphicalObject obj : model.list()) {
-                    obj.render(r);
-                    currentState.afterDraw(r, obj);
-                }
-
-                currentState.afterDraw(r);
-            }
-        };
+        canvas = new DrawingCanvas(model, this::getCurrentState);
         canvas.setBackground(Color.WHITE);
         canvas.setFocusable(true);
         cp.add(canvas, BorderLayout.CENTER);
 
-        model.addDocumentModelListener(() -> canvas.repaint());
+        model.addDocumentModelListener(canvas);
 
         canvas.addMouseListener(new MouseAdapter() {
             @Override
             public void mousePressed(MouseEvent evt) {
                 canvas.requestFocusInWindow();
 
-                Point mousePoint = new Point(evt.getX(), evt.getY());
+                if (SwingUtilities.isMiddleMouseButton(evt)) {
+                    panStart = evt.getPoint();
+                    return;
+                }
+
+                Point mousePoint = canvas.toDocument(evt.getX(), evt.getY());
                 boolean shiftDown = evt.isShiftDown();
                 boolean ctrlDown = evt.isControlDown();
 
@@ -100,7 +111,12 @@ public class GUI extends JFrame {
 
             @Override
             public void mouseReleased(MouseEvent evt) {
-                Point mousePoint = new Point(evt.getX(), evt.getY());
+                if (SwingUtilities.isMiddleMouseButton(evt)) {
+                    panStart = null;
+                    return;
+                }
+
+                Point mousePoint = canvas.toDocument(evt.getX(), evt.getY());
                 boolean shiftDown = evt.isShiftDown();
                 boolean ctrlDown = evt.isControlDown();
 
@@ -111,16 +127,34 @@ public class GUI extends JFrame {
         canvas.addMouseMotionListener(new MouseMotionAdapter() {
             @Override
             public void mouseDragged(MouseEvent evt) {
-                Point mousePoint = new Point(evt.getX(), evt.getY());
-                currentState.mouseDragged(mousePoint);
+                if (panStart != null) {
+                    canvas.pan(evt.getX() - panStart.x, evt.getY() - panStart.y);
+                    panStart = evt.getPoint();
+                    return;
+                }
+
+                currentState.mouseDragged(canvas.toDocumentX(evt.getX()), canvas.toDocumentY(evt.getY()));
             }
         });
 
+        canvas.addMouseWheelListener(evt ->
+                canvas.zoom(Math.pow(ZOOM_STEP, -evt.getPreciseWheelRotation()), evt.getX(), evt.getY()));
+
         canvas.addKeyListener(new KeyListener() {
+            private int heldKey = KeyEvent.VK_UNDEFINED;
+
             @Override
             public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() != heldKey) {
+                    model.getHistory().seal();
+                    heldKey = e.getKeyCode();
+                }
                 if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
                     setState(new IdleState());
+                } else if (e.isControlDown() && e.getKeyCode() == KeyEvent.VK_Z) {
+                    model.undo();
+                } else if (e.isControlDown() && e.getKeyCode() == KeyEvent.VK_Y) {
+                    model.redo();
                 } else {
                     currentState.keyPressed(e.getKeyCode());
                 }
@@ -128,6 +162,9 @@ public class GUI extends JFrame {
 
             @Override
             public void keyReleased(KeyEvent e) {
+                if (e.getKeyCode() == heldKey) {
+                    heldKey = KeyEvent.VK_UNDEFINED;
+                }
             }
 
             @Override
@@ -145,43 +182,40 @@ public class GUI extends JFrame {
     private void loadDrawing() {
         String fileName = pitajImeZaUcitavanje();
         if (fileName != null) {
-            try {
-                List<String> rows = new ArrayList<>();
-                try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        rows.add(line);
+            ProgressMonitor progressMonitor = new ProgressMonitor(this, "Učitavanje crteža...", fileName, 0, 100);
+
+            LoadDrawingWorker worker = new LoadDrawingWorker(fileName) {
+                @Override
+                protected void done() {
+                    progressMonitor.close();
+                    if (isCancelled()) {
+                        return;
                     }
-                }
 
-                Stack<GraphicalObject> stack = new Stack<>();
-                Map<String, GraphicalObject> prototypes = new HashMap<>();
-                prototypes.put("@LINE", new LineSegment());
-                prototypes.put("@OVAL", new Oval());
-                prototypes.put("@COMP", new CompositeShape(new ArrayList<>()));
-
-                for (String row : rows) {
-                    String[] parts = row.split("\\s+", 2);
-                    String shapeID = parts[0];
-                    String data = parts.length > 1 ? parts[1] : "";
-
-                    GraphicalObject prototype = prototypes.get(shapeID);
-                    if (prototype != null) {
-                        prototype.load(stack, data);
+                    try {
+                        model.setGraphicalObjects(get());
+                        JOptionPane.showMessageDialog(GUI.this, "Crtež je uspješno učitan!", "Učitavanje", JOptionPane.INFORMATION_MESSAGE);
+                    } catch (ExecutionException ex) {
+                        if (ex.getCause() instanceof IOException) {
+                            JOptionPane.showMessageDialog(GUI.this, "Greška pri čitanju datoteke: " + ex.getCause().getMessage(), "Greška", JOptionPane.ERROR_MESSAGE);
+                        } else {
+                            JOptionPane.showMessageDialog(GUI.this, "Neispravni podaci u datoteci!", "Greška", JOptionPane.ERROR_MESSAGE);
+                        }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
                     }
                 }
+            };
 
-                model.clear();
-                while (!stack.isEmpty()) {
-                    model.addGraphicalObject(stack.pop());
+            worker.addPropertyChangeListener(evt -> {
+                if ("progress".equals(evt.getPropertyName())) {
+                    progressMonitor.setProgress((Integer) evt.getNewValue());
+                    if (progressMonitor.isCanceled()) {
+                        worker.cancel(false);
+                    }
                 }
-
-                JOptionPane.showMessageDialog(this, "Crtež je uspješno učitan!", "Učitavanje", JOptionPane.INFORMATION_MESSAGE);
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(this, "Greška pri čitanju datoteke: " + ex.getMessage(), "Greška", JOptionPane.ERROR_MESSAGE);
-            } catch (NumberFormatException ex) {
-                JOptionPane.showMessageDialog(this, "Neispravni podaci u datoteci!", "Greška", JOptionPane.ERROR_MESSAGE);
-            }
+            });
+            worker.execute();
         }
     }
 
@@ -202,16 +236,7 @@ public class GUI extends JFrame {
         String fileName = pitajImeZaSnimanje();
         if (fileName != null) {
             try {
-                List<String> rows = new ArrayList<>();
-                for (GraphicalObject obj : model.list()) {
-                    obj.save(rows);
-                }
-
-                try (FileWriter writer = new FileWriter(fileName)) {
-                    for (String row : rows) {
-                        writer.write(row + "\n");
-                    }
-                }
+                DrawingIO.save(model.list(), fileName);
 
                 JOptionPane.showMessageDialog(this, "Crtež je uspješno snimljen!", "Snimanje", JOptionPane.INFORMATION_MESSAGE);
             } catch (IOException ex) {
@@ -229,7 +254,7 @@ public class GUI extends JFrame {
 
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             String fileName = fileChooser.getSelectedFile().getAbsolutePath();
-            if (!fileName.toLowerCase().endsWith(".txt")) {
+            if (!fileName.toLowerCase().endsWith(".txt") && !DrawingIO.isBinary(fileName)) {
                 fileName += ".txt";
             }
             return fileName;
@@ -242,11 +267,7 @@ public class GUI extends JFrame {
         String fileName = pitajIme();
         if (fileName != null) {
             try {
-                SVGRendererImpl r = new SVGRendererImpl(fileName);
-                for (GraphicalObject obj : model.list()) {
-                    obj.render(r);
-                }
-                r.close();
+                DrawingIO.exportSVG(model.list(), fileName);
                 JOptionPane.showMessageDialog(this, "SVG datoteka je uspješno eksportirana!", "Export", JOptionPane.INFORMATION_MESSAGE);
             } catch (IOException ex) {
                 JOptionPane.showMessageDialog(this, "Greška pri pisanju datoteke: " + ex.getMessage(), "Greška", JOptionPane.ERROR_MESSAGE);
@@ -263,7 +284,8 @@ public class GUI extends JFrame {
 
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             String fileName = fileChooser.getSelectedFile().getAbsolutePath();
-            if (!fileName.toLowerCase().endsWith(".svg")) {
+            String lowerCaseName = fileName.toLowerCase();
+            if (!lowerCaseName.endsWith(".svg") && !lowerCaseName.endsWith(SVGRendererImpl.GZIP_EXTENSION)) {
                 fileName += ".svg";
             }
             return fileName;
@@ -272,6 +294,38 @@ public class GUI extends JFrame {
         return null;
     }
 
+    private void exportToPNG() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Odaberite ime i lokaciju PNG datoteke");
+        fileChooser.setSelectedFile(new java.io.File("drawing.png"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        String fileName = fileChooser.getSelectedFile().getAbsolutePath();
+        if (!fileName.toLowerCase().endsWith(".png")) {
+            fileName += ".png";
+        }
+
+        String scaleText = JOptionPane.showInputDialog(this, "Mjerilo:", "1");
+        if (scaleText == null) {
+            return;
+        }
+        try {
+            double scale = Double.parseDouble(scaleText.trim());
+            if (!(scale > 0)) {
+                throw new NumberFormatException(scaleText);
+            }
+            new PngExporter().export(model.list(), fileName, scale);
+            JOptionPane.showMessageDialog(this, "PNG datoteka je uspješno eksportirana!", "Export", JOptionPane.INFORMATION_MESSAGE);
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Neispravno mjerilo!", "Greška", JOptionPane.ERROR_MESSAGE);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "Slika je prevelika za zadano mjerilo!", "Greška", JOptionPane.ERROR_MESSAGE);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Greška pri pisanju datoteke: " + ex.getMessage(), "Greška", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     public void setState(State newState) {
         if (currentState != null) {
             currentState.onLeaving();
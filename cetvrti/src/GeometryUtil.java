@@ -1,25 +1,77 @@
 public class GeometryUtil {
     public static double distanceFromPoint(Point point1, Point point2) {
-        int dx = point1.getX() - point2.getX();
-        int dy = point1.getY() - point2.getY();
-        return Math.sqrt(dx*dx + dy*dy);
+        return distanceFromPoint(point1.getX(), point1.getY(), point2.getX(), point2.getY());
+    }
+
+    public static double distanceFromPoint(int x1, int y1, int x2, int y2) {
+        return Math.sqrt(distanceSquared(x1, y1, x2, y2));
+    }
+
+    public static long distanceSquared(int x1, int y1, int x2, int y2) {
+        long dx = (long) x1 - x2;
+        long dy = (long) y1 - y2;
+        return dx*dx + dy*dy;
     }
 
     public static double distanceFromLineSegment(Point s, Point e, Point p) {
-        double lengthSquared = (e.getX()-s.getX())*(e.getX()-s.getX()) +
-                (e.getY()-s.getY())*(e.getY()-s.getY());
-        if (lengthSquared == 0) return distanceFromPoint(p, s);
+        return distanceFromLineSegment(s.getX(), s.getY(), e.getX(), e.getY(), p.getX(), p.getY());
+    }
 
-        double t = ((p.getX()-s.getX())*(e.getX()-s.getX()) +
-                (p.getY()-s.getY())*(e.getY()-s.getY())) / lengthSquared;
+    public static double distanceFromLineSegment(int sx, int sy, int ex, int ey, int px, int py) {
+        return Math.sqrt(distanceSquaredFromLineSegment(sx, sy, ex, ey, px, py));
+    }
+
+    public static double distanceSquaredFromLineSegment(int sx, int sy, int ex, int ey, int px, int py) {
+        double lengthSquared = distanceSquared(sx, sy, ex, ey);
+        if (lengthSquared == 0) return distanceSquared(px, py, sx, sy);
+
+        double t = ((double)(px-sx)*(ex-sx) + (double)(py-sy)*(ey-sy)) / lengthSquared;
 
         t = Math.max(0, Math.min(1, t));
 
-        Point projection = new Point(
-                (int)(s.getX() + t*(e.getX()-s.getX())),
-                (int)(s.getY() + t*(e.getY()-s.getY()))
-        );
+        int projectionX = (int)(sx + t*(ex-sx));
+        int projectionY = (int)(sy + t*(ey-sy));
+
+        return distanceSquared(px, py, projectionX, projectionY);
+    }
+
+    public static boolean lineIntersectsRectangle(int x1, int y1, int x2, int y2, Rectangle rect) {
+        int left = rect.getX();
+        int top = rect.getY();
+        int right = left + rect.getWidth();
+        int bottom = top + rect.getHeight();
+
+        return lineSegmentsIntersect(x1, y1, x2, y2, left, top, right, top) ||
+                lineSegmentsIntersect(x1, y1, x2, y2, right, top, right, bottom) ||
+                lineSegmentsIntersect(x1, y1, x2, y2, right, bottom, left, bottom) ||
+                lineSegmentsIntersect(x1, y1, x2, y2, left, bottom, left, top);
+    }
+
+    public static boolean lineSegmentsIntersect(int p1x, int p1y, int q1x, int q1y,
+                                                int p2x, int p2y, int q2x, int q2y) {
+        int o1 = orientation(p1x, p1y, q1x, q1y, p2x, p2y);
+        int o2 = orientation(p1x, p1y, q1x, q1y, q2x, q2y);
+        int o3 = orientation(p2x, p2y, q2x, q2y, p1x, p1y);
+        int o4 = orientation(p2x, p2y, q2x, q2y, q1x, q1y);
+
+        if (o1 != o2 && o3 != o4) return true;
+
+        if (o1 == 0 && onSegment(p1x, p1y, p2x, p2y, q1x, q1y)) return true;
+        if (o2 == 0 && onSegment(p1x, p1y, q2x, q2y, q1x, q1y)) return true;
+        if (o3 == 0 && onSegment(p2x, p2y, p1x, p1y, q2x, q2y)) return true;
+        if (o4 == 0 && onSegment(p2x, p2y, q1x, q1y, q2x, q2y)) return true;
+
+        return false;
+    }
+
+    private static int orientation(int px, int py, int qx, int qy, int rx, int ry) {
+        long val = (long)(qy - py) * (rx - qx) - (long)(qx - px) * (ry - qy);
+        if (val == 0) return 0;
+        return (val > 0) ? 1 : 2;
+    }
 
-        return distanceFromPoint(p, projection);
+    private static boolean onSegment(int px, int py, int qx, int qy, int rx, int ry) {
+        return qx <= Math.max(px, rx) && qx >= Math.min(px, rx) &&
+                qy <= Math.max(py, ry) && qy >= Math.min(py, ry);
     }
-}
\ No newline at end of file
+}
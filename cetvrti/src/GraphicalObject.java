@@ -1,25 +1,53 @@
-
-import java.util.List;
-import java.util.Stack;
+import java.io.IOException;
+import java.util.Deque;
 
 public interface GraphicalObject {
     boolean isSelected();
     void setSelected(boolean selected);
     int getNumberOfHotPoints();
     Point getHotPoint(int index);
+
+    default int getHotPointX(int index) {
+        return getHotPoint(index).getX();
+    }
+
+    default int getHotPointY(int index) {
+        return getHotPoint(index).getY();
+    }
+
     void setHotPoint(int index, Point point);
+
+    default void setHotPoint(int index, int x, int y) {
+        setHotPoint(index, new Point(x, y));
+    }
+
     boolean isHotPointSelected(int index);
     void setHotPointSelected(int index, boolean selected);
     double getHotPointDistance(int index, Point mousePoint);
     void translate(Point delta);
+
+    default void translate(int dx, int dy) {
+        translate(new Point(dx, dy));
+    }
+
     Rectangle getBoundingBox();
+
+    default Rectangle getSelectionBounds() {
+        return getBoundingBox();
+    }
+
     double selectionDistance(Point mousePoint);
+
+    default long getMemorySize() {
+        return 64 + 16L * getNumberOfHotPoints();
+    }
+
     void render(Renderer r);
     void addGraphicalObjectListener(GraphicalObjectListener l);
     void removeGraphicalObjectListener(GraphicalObjectListener l);
     String getShapeName();
     GraphicalObject duplicate();
     String getShapeID();
-    void save(List<String> rows);
-    void load(Stack<GraphicalObject> stack, String data);
+    void save(DrawingOutput out) throws IOException;
+    void load(Deque<GraphicalObject> stack, DrawingInput data) throws IOException;
 }
\ No newline at end of file
@@ -1,9 +1,10 @@
 public class IdleState implements State {
     @Override public void mouseDown(Point mousePoint, boolean shiftDown, boolean ctrlDown) {}
     @Override public void mouseUp(Point mousePoint, boolean shiftDown, boolean ctrlDown) {}
-    @Override public void mouseDragged(Point mousePoint) {}
+    @Override public void mouseDragged(int x, int y) {}
     @Override public void keyPressed(int keyCode) {}
     @Override public void afterDraw(Renderer r, GraphicalObject go) {}
     @Override public void afterDraw(Renderer r) {}
+    @Override public boolean isEditingSelection() { return false; }
     @Override public void onLeaving() {}
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+public class LevelOfDetail {
+    private int minShapeSize = Integer.getInteger("cetvrti.lod.minShapeSize", 2);
+    private int thumbnailSize = Integer.getInteger("cetvrti.lod.thumbnailSize", 32);
+    private final Map<CompositeShape, Thumbnail> thumbnails = new WeakHashMap<>();
+
+    private static class Thumbnail {
+        final BufferedImage image;
+        final int modificationCount;
+        final int size;
+        final double scale;
+
+        Thumbnail(BufferedImage image, int modificationCount, int size, double scale) {
+            this.image = image;
+            this.modificationCount = modificationCount;
+            this.size = size;
+            this.scale = scale;
+        }
+    }
+
+    public int getMinShapeSize() { return minShapeSize; }
+    public void setMinShapeSize(int minShapeSize) { this.minShapeSize = minShapeSize; }
+    public int getThumbnailSize() { return thumbnailSize; }
+
+    public void setThumbnailSize(int thumbnailSize) {
+        this.thumbnailSize = thumbnailSize;
+        thumbnails.clear();
+    }
+
+    public void render(GraphicalObject go, G2DRendererImpl r, double scale) {
+        if (scale >= 1) {
+            go.render(r);
+            return;
+        }
+        Rectangle bbox = go.getBoundingBox();
+        double size = Math.max(bbox.getWidth(), bbox.getHeight()) * scale;
+
+        if (size < Math.max(1, minShapeSize)) {
+            int pixel = (int) Math.ceil(1 / scale);
+            r.fillRect(bbox.getX(), bbox.getY(), Math.max(bbox.getWidth(), pixel), Math.max(bbox.getHeight(), pixel));
+        } else if (go instanceof CompositeShape) {
+            CompositeShape composite = (CompositeShape) go;
+            if (size < thumbnailSize) {
+                Thumbnail thumbnail = thumbnail(composite, bbox, size);
+                r.drawImage(thumbnail.image, bbox.getX() - 1 / thumbnail.scale, bbox.getY() - 1 / thumbnail.scale,
+                        1 / thumbnail.scale);
+            } else {
+                for (int i = 0; i < composite.getNumberOfChildren(); i++) {
+                    render(composite.getChild(i), r, scale);
+                }
+            }
+        } else {
+            go.render(r);
+        }
+    }
+
+    private Thumbnail thumbnail(CompositeShape composite, Rectangle bbox, double size) {
+        int thumbnailPixels = Math.max(1, Integer.highestOneBit((int) Math.ceil(size) - 1) << 1);
+        Thumbnail thumbnail = thumbnails.get(composite);
+        if (thumbnail != null && thumbnail.size == thumbnailPixels
+                && thumbnail.modificationCount == composite.getModificationCount()) {
+            return thumbnail;
+        }
+
+        double thumbnailScale = thumbnailPixels / (double) Math.max(1, Math.max(bbox.getWidth(), bbox.getHeight()));
+        BufferedImage image = new BufferedImage(
+                (int) Math.ceil(bbox.getWidth() * thumbnailScale) + 2,
+                (int) Math.ceil(bbox.getHeight() * thumbnailScale) + 2,
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.translate(1, 1);
+            g2d.scale(thumbnailScale, thumbnailScale);
+            g2d.translate(-bbox.getX(), -bbox.getY());
+            composite.render(new G2DRendererImpl(g2d));
+        } finally {
+            g2d.dispose();
+        }
+
+        thumbnail = new Thumbnail(image, composite.getModificationCount(), thumbnailPixels, thumbnailScale);
+        thumbnails.put(composite, thumbnail);
+        return thumbnail;
+    }
+}
@@ -1,5 +1,5 @@
-import java.util.List;
-import java.util.Stack;
+import java.io.IOException;
+import java.util.Deque;
 
 public class LineSegment extends AbstractGraphicalObject {
     public LineSegment() {
@@ -11,11 +11,11 @@ public class LineSegment extends AbstractGraphicalObject {
     }
 
     @Override
-    public Rectangle getBoundingBox() {
-        int x1 = getHotPoint(0).getX();
-        int y1 = getHotPoint(0).getY();
-        int x2 = getHotPoint(1).getX();
-        int y2 = getHotPoint(1).getY();
+    protected Rectangle computeBoundingBox() {
+        int x1 = hotPoints[0];
+        int y1 = hotPoints[1];
+        int x2 = hotPoints[2];
+        int y2 = hotPoints[3];
 
         return new Rectangle(
                 Math.min(x1, x2),
@@ -28,7 +28,7 @@ public class LineSegment extends AbstractGraphicalObject {
     @Override
     public double selectionDistance(Point mousePoint) {
         return GeometryUtil.distanceFromLineSegment(
-                getHotPoint(0), getHotPoint(1), mousePoint
+                hotPoints[0], hotPoints[1], hotPoints[2], hotPoints[3], mousePoint.getX(), mousePoint.getY()
         );
     }
 
@@ -43,20 +43,21 @@ public class LineSegment extends AbstractGraphicalObject {
     }
 
     @Override
-    public void save(List<String> rows) {
-        Point start = getHotPoint(0);
-        Point end = getHotPoint(1);
-        rows.add(String.format("%s %d %d %d %d",
-                getShapeID(), start.getX(), start.getY(), end.getX(), end.getY()));
+    public void save(DrawingOutput out) throws IOException {
+        out.beginShape(getShapeID());
+        out.writeInt(hotPoints[0]);
+        out.writeInt(hotPoints[1]);
+        out.writeInt(hotPoints[2]);
+        out.writeInt(hotPoints[3]);
+        out.endShape();
     }
 
     @Override
-    public void load(Stack<GraphicalObject> stack, String data) {
-        String[] parts = data.trim().split("\\s+");
-        int x1 = Integer.parseInt(parts[0]);
-        int y1 = Integer.parseInt(parts[1]);
-        int x2 = Integer.parseInt(parts[2]);
-        int y2 = Integer.parseInt(parts[3]);
+    public void load(Deque<GraphicalObject> stack, DrawingInput data) throws IOException {
+        int x1 = data.nextInt();
+        int y1 = data.nextInt();
+        int x2 = data.nextInt();
+        int y2 = data.nextInt();
 
         LineSegment newLine = new LineSegment(new Point(x1, y1), new Point(x2, y2));
         stack.push(newLine);
@@ -64,14 +65,11 @@ public class LineSegment extends AbstractGraphicalObject {
 
     @Override
     public GraphicalObject duplicate() {
-        return new LineSegment(
-                new Point(getHotPoint(0).getX(), getHotPoint(0).getY()),
-                new Point(getHotPoint(1).getX(), getHotPoint(1).getY())
-        );
+        return new LineSegment(getHotPoint(0), getHotPoint(1));
     }
 
     @Override
     public void render(Renderer r) {
-        r.drawLine(getHotPoint(0), getHotPoint(1));
+        r.drawLine(hotPoints[0], hotPoints[1], hotPoints[2], hotPoints[3]);
     }
 }
\ No newline at end of file
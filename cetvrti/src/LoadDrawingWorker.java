@@ -0,0 +1,21 @@
+import javax.swing.*;
+import java.io.IOException;
+import java.util.List;
+
+public class LoadDrawingWorker extends SwingWorker<List<GraphicalObject>, Void> implements LoadMonitor {
+    private final String fileName;
+
+    public LoadDrawingWorker(String fileName) {
+        this.fileName = fileName;
+    }
+
+    @Override
+    protected List<GraphicalObject> doInBackground() throws IOException {
+        return DrawingIO.load(fileName, this);
+    }
+
+    @Override
+    public void progress(long bytesRead, long totalBytes) {
+        setProgress(totalBytes == 0 ? 100 : (int) Math.min(100, 100 * bytesRead / totalBytes));
+    }
+}
@@ -0,0 +1,4 @@
+public interface LoadMonitor {
+    void progress(long bytesRead, long totalBytes);
+    boolean isCancelled();
+}
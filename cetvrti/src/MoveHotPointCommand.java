@@ -0,0 +1,46 @@
+public class MoveHotPointCommand implements Command {
+    private final GraphicalObject target;
+    private final int index;
+    private final int fromX;
+    private final int fromY;
+    private int toX;
+    private int toY;
+
+    public MoveHotPointCommand(GraphicalObject target, int index, int fromX, int fromY, int toX, int toY) {
+        this.target = target;
+        this.index = index;
+        this.fromX = fromX;
+        this.fromY = fromY;
+        this.toX = toX;
+        this.toY = toY;
+    }
+
+    @Override
+    public void undo(DocumentModel model) {
+        model.setHotPoint(target, index, fromX, fromY);
+    }
+
+    @Override
+    public void redo(DocumentModel model) {
+        model.setHotPoint(target, index, toX, toY);
+    }
+
+    @Override
+    public long getMemorySize() {
+        return 48;
+    }
+
+    @Override
+    public boolean mergeWith(Command next) {
+        if (!(next instanceof MoveHotPointCommand)) {
+            return false;
+        }
+        MoveHotPointCommand other = (MoveHotPointCommand) next;
+        if (other.target != target || other.index != index) {
+            return false;
+        }
+        toX = other.toX;
+        toY = other.toY;
+        return true;
+    }
+}
@@ -0,0 +1,26 @@
+public class MoveZCommand implements Command {
+    private final GraphicalObject target;
+    private final int from;
+    private final int to;
+
+    public MoveZCommand(GraphicalObject target, int from, int to) {
+        this.target = target;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public void undo(DocumentModel model) {
+        model.moveZ(target, from);
+    }
+
+    @Override
+    public void redo(DocumentModel model) {
+        model.moveZ(target, to);
+    }
+
+    @Override
+    public long getMemorySize() {
+        return 32;
+    }
+}
@@ -1,44 +1,64 @@
-import java.util.List;
-import java.util.Stack;
+import java.io.IOException;
+import java.util.Deque;
 
 public class Oval extends AbstractGraphicalObject {
+    private int centerX;
+    private int centerY;
+    private int a;
+    private int b;
+
     public Oval() {
-        super(new Point[]{new Point(150, 100), new Point(100, 150)});
+        this(new Point(150, 100), new Point(100, 150));
     }
 
     public Oval(Point right, Point bottom) {
         super(new Point[]{right, bottom});
+        updateAxes();
     }
 
     @Override
-    public Rectangle getBoundingBox() {
-        Point right = getHotPoint(0);
-        Point bottom = getHotPoint(1);
-        int centerX = bottom.getX();
-        int centerY = right.getY();
-        int a = Math.abs(right.getX() - centerX);
-        int b = Math.abs(bottom.getY() - centerY);
+    protected void hotPointsChanged() {
+        super.hotPointsChanged();
+        updateAxes();
+    }
+
+    private void updateAxes() {
+        centerX = hotPoints[2];
+        centerY = hotPoints[1];
+        a = Math.abs(hotPoints[0] - centerX);
+        b = Math.abs(hotPoints[3] - centerY);
+    }
 
+    @Override
+    protected Rectangle computeBoundingBox() {
         return new Rectangle(centerX - a, centerY - b, 2*a, 2*b);
     }
 
+    @Override
+    public Rectangle getSelectionBounds() {
+        return selectionBounds(centerX, centerY, a, b);
+    }
+
+    static Rectangle selectionBounds(int centerX, int centerY, int a, int b) {
+        int radius = (int) Math.ceil(Math.sqrt((double) a * a + (double) b * b));
+        return new Rectangle(centerX - radius, centerY - radius, 2 * radius, 2 * radius);
+    }
+
     @Override
     public double selectionDistance(Point mousePoint) {
-        Point right = getHotPoint(0);
-        Point bottom = getHotPoint(1);
-        int centerX = bottom.getX();
-        int centerY = right.getY();
-        int a = Math.abs(right.getX() - centerX);
-        int b = Math.abs(bottom.getY() - centerY);
-
-        double dx = mousePoint.getX() - centerX;
-        double dy = mousePoint.getY() - centerY;
+        return selectionDistance(centerX, centerY, a, b, mousePoint.getX(), mousePoint.getY());
+    }
+
+    static double selectionDistance(int centerX, int centerY, int a, int b, int px, int py) {
+        double dx = px - centerX;
+        double dy = py - centerY;
         double normalized = (dx*dx)/(a*a) + (dy*dy)/(b*b);
 
         if (normalized <= 1.0) {
             return 0;
         } else {
-            return Math.sqrt(dx*dx + dy*dy) - Math.sqrt(a*a + b*b);
+            return GeometryUtil.distanceFromPoint(px, py, centerX, centerY)
+                    - Math.sqrt(a*a + b*b);
         }
     }
 
@@ -53,20 +73,21 @@ public class Oval extends AbstractGraphicalObject {
     }
 
     @Override
-    public void save(List<String> rows) {
-        Point right = getHotPoint(0);
-        Point bottom = getHotPoint(1);
-        rows.add(String.format("%s %d %d %d %d",
-                getShapeID(), right.getX(), right.getY(), bottom.getX(), bottom.getY()));
+    public void save(DrawingOutput out) throws IOException {
+        out.beginShape(getShapeID());
+        out.writeInt(hotPoints[0]);
+        out.writeInt(hotPoints[1]);
+        out.writeInt(hotPoints[2]);
+        out.writeInt(hotPoints[3]);
+        out.endShape();
     }
 
     @Override
-    public void load(Stack<GraphicalObject> stack, String data) {
-        String[] parts = data.trim().split("\\s+");
-        int x1 = Integer.parseInt(parts[0]);
-        int y1 = Integer.parseInt(parts[1]);
-        int x2 = Integer.parseInt(parts[2]);
-        int y2 = Integer.parseInt(parts[3]);
+    public void load(Deque<GraphicalObject> stack, DrawingInput data) throws IOException {
+        int x1 = data.nextInt();
+        int y1 = data.nextInt();
+        int x2 = data.nextInt();
+        int y2 = data.nextInt();
 
         Oval newOval = new Oval(new Point(x1, y1), new Point(x2, y2));
         stack.push(newOval);
@@ -74,30 +95,11 @@ public class Oval extends AbstractGraphicalObject {
 
     @Override
     public GraphicalObject duplicate() {
-        return new Oval(
-                new Point(getHotPoint(0).getX(), getHotPoint(0).getY()),
-                new Point(getHotPoint(1).getX(), getHotPoint(1).getY())
-        );
+        return new Oval(getHotPoint(0), getHotPoint(1));
     }
 
     @Override
     public void render(Renderer r) {
-        Point right = getHotPoint(0);
-        Point bottom = getHotPoint(1);
-        int centerX = bottom.getX();
-        int centerY = right.getY();
-        int a = Math.abs(right.getX() - centerX);
-        int b = Math.abs(bottom.getY() - centerY);
-
-        int points = 64;
-        Point[] ovalPoints = new Point[points];
-        for (int i = 0; i < points; i++) {
-            double angle = 2 * Math.PI * i / points;
-            int x = centerX + (int)(a * Math.cos(angle));
-            int y = centerY + (int)(b * Math.sin(angle));
-            ovalPoints[i] = new Point(x, y);
-        }
-
-        r.fillPolygon(ovalPoints);
+        r.fillEllipse(centerX, centerY, a, b);
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+public class PngExporter {
+    private static final int MARGIN = 4;
+
+    private final TiledRasterizer rasterizer;
+
+    public PngExporter() {
+        this(new TiledRasterizer());
+    }
+
+    public PngExporter(TiledRasterizer rasterizer) {
+        this.rasterizer = rasterizer;
+    }
+
+    public BufferedImage rasterize(List<GraphicalObject> objects, double scale) {
+        Rectangle bounds = null;
+        for (GraphicalObject obj : objects) {
+            bounds = bounds == null ? obj.getBoundingBox() : bounds.union(obj.getBoundingBox());
+        }
+        if (bounds == null) {
+            bounds = new Rectangle(0, 0, 0, 0);
+        }
+
+        int width = (int) Math.ceil(bounds.getWidth() * scale) + 2 * MARGIN;
+        int height = (int) Math.ceil(bounds.getHeight() * scale) + 2 * MARGIN;
+        return rasterizer.render(objects, width, height, scale,
+                MARGIN - bounds.getX() * scale, MARGIN - bounds.getY() * scale, Color.WHITE);
+    }
+
+    public void export(List<GraphicalObject> objects, String fileName, double scale) throws IOException {
+        if (!ImageIO.write(rasterize(objects, scale), "png", new File(fileName))) {
+            throw new IOException("No PNG writer available");
+        }
+    }
+}
@@ -9,12 +9,4 @@ public class Point {
 
     public int getX() { return x; }
     public int getY() { return y; }
-
-    public Point translate(Point dp) {
-        return new Point(this.x + dp.x, this.y + dp.y);
-    }
-
-    public Point difference(Point p) {
-        return new Point(this.x - p.x, this.y - p.y);
-    }
 }
\ No newline at end of file
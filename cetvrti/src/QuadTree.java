@@ -0,0 +1,216 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class QuadTree implements SpatialIndex {
+    private static final int NODE_CAPACITY = 16;
+    private static final long MIN_NODE_SIZE = 16;
+    private static final long INITIAL_SIZE = 1024;
+    private static final int PARALLEL_DEPTH = 3;
+
+    private Node root;
+    private final Map<GraphicalObject, Entry> entries = new IdentityHashMap<>();
+
+    private static class Entry {
+        final GraphicalObject go;
+        Rectangle bounds;
+        Node node;
+
+        Entry(GraphicalObject go, Rectangle bounds) {
+            this.go = go;
+            this.bounds = bounds;
+        }
+    }
+
+    private static class Node {
+        final long x;
+        final long y;
+        final long size;
+        final List<Entry> items = new ArrayList<>();
+        Node[] children;
+
+        Node(long x, long y, long size) {
+            this.x = x;
+            this.y = y;
+            this.size = size;
+        }
+
+        boolean contains(Rectangle r) {
+            return r.getX() >= x && r.getY() >= y &&
+                    (long) r.getX() + r.getWidth() < x + size &&
+                    (long) r.getY() + r.getHeight() < y + size;
+        }
+
+        boolean intersects(Rectangle r) {
+            return r.getX() < x + size && x <= (long) r.getX() + r.getWidth() &&
+                    r.getY() < y + size && y <= (long) r.getY() + r.getHeight();
+        }
+
+        Node childContaining(Rectangle r) {
+            for (Node child : children) {
+                if (child.contains(r)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        void split() {
+            long half = size / 2;
+            children = new Node[]{
+                    new Node(x, y, half),
+                    new Node(x + half, y, half),
+                    new Node(x, y + half, half),
+                    new Node(x + half, y + half, half)
+            };
+        }
+    }
+
+    @Override
+    public void insert(GraphicalObject go, Rectangle bounds) {
+        Entry entry = new Entry(go, bounds);
+        Entry previous = entries.put(go, entry);
+        if (previous != null) {
+            previous.node.items.remove(previous);
+        }
+        insert(entry);
+    }
+
+    @Override
+    public void update(GraphicalObject go, Rectangle bounds) {
+        Entry entry = entries.get(go);
+        if (entry == null) {
+            insert(go, bounds);
+            return;
+        }
+
+        entry.bounds = bounds;
+        if (entry.node.contains(bounds) &&
+                (entry.node.children == null || entry.node.childContaining(bounds) == null)) {
+            return;
+        }
+        entry.node.items.remove(entry);
+        insert(entry);
+    }
+
+    @Override
+    public void remove(GraphicalObject go) {
+        Entry entry = entries.remove(go);
+        if (entry != null) {
+            entry.node.items.remove(entry);
+        }
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        root = null;
+    }
+
+    @Override
+    public Rectangle getBounds(GraphicalObject go) {
+        Entry entry = entries.get(go);
+        return entry == null ? null : entry.bounds;
+    }
+
+    @Override
+    public void query(Rectangle region, List<GraphicalObject> result) {
+        if (root != null) {
+            query(root, region, result);
+        }
+    }
+
+    @Override
+    public void queryParallel(Rectangle region, List<GraphicalObject> result) {
+        if (root != null) {
+            result.addAll(queryParallel(root, region, PARALLEL_DEPTH));
+        }
+    }
+
+    private List<GraphicalObject> queryParallel(Node node, Rectangle region, int depth) {
+        List<GraphicalObject> result = new ArrayList<>();
+        if (depth == 0 || node.children == null) {
+            query(node, region, result);
+            return result;
+        }
+        for (Entry entry : node.items) {
+            if (entry.bounds.intersects(region)) {
+                result.add(entry.go);
+            }
+        }
+        Arrays.stream(node.children).parallel()
+                .filter(child -> child.intersects(region))
+                .map(child -> queryParallel(child, region, depth - 1))
+                .forEachOrdered(result::addAll);
+        return result;
+    }
+
+    private void query(Node node, Rectangle region, List<GraphicalObject> result) {
+        for (Entry entry : node.items) {
+            if (entry.bounds.intersects(region)) {
+                result.add(entry.go);
+            }
+        }
+        if (node.children != null) {
+            for (Node child : node.children) {
+                if (child.intersects(region)) {
+                    query(child, region, result);
+                }
+            }
+        }
+    }
+
+    private void insert(Entry entry) {
+        Rectangle bounds = entry.bounds;
+        if (root == null) {
+            long size = INITIAL_SIZE;
+            while (size <= Math.max(bounds.getWidth(), bounds.getHeight())) {
+                size *= 2;
+            }
+            root = new Node(bounds.getX() - size / 4, bounds.getY() - size / 4, size);
+        }
+        while (!root.contains(bounds)) {
+            grow(bounds);
+        }
+
+        Node node = root;
+        while (node.children != null) {
+            Node child = node.childContaining(bounds);
+            if (child == null) {
+                break;
+            }
+            node = child;
+        }
+
+        node.items.add(entry);
+        entry.node = node;
+
+        if (node.children == null && node.items.size() > NODE_CAPACITY && node.size > MIN_NODE_SIZE) {
+            node.split();
+            List<Entry> items = new ArrayList<>(node.items);
+            node.items.clear();
+            for (Entry item : items) {
+                Node child = node.childContaining(item.bounds);
+                Node target = child != null ? child : node;
+                target.items.add(item);
+                item.node = target;
+            }
+        }
+    }
+
+    private void grow(Rectangle bounds) {
+        long size = root.size;
+        boolean growLeft = bounds.getX() < root.x;
+        boolean growUp = bounds.getY() < root.y;
+        long x = growLeft ? root.x - size : root.x;
+        long y = growUp ? root.y - size : root.y;
+
+        Node newRoot = new Node(x, y, size * 2);
+        newRoot.split();
+        int quadrant = (growLeft ? 1 : 0) + (growUp ? 2 : 0);
+        newRoot.children[quadrant] = root;
+        root = newRoot;
+    }
+}
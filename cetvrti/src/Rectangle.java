@@ -15,4 +15,31 @@ public class Rectangle {
     public int getY() { return y; }
     public int getWidth() { return width; }
     public int getHeight() { return height; }
-}
\ No newline at end of file
+
+    public boolean intersects(Rectangle r) {
+        return r.x <= x + width && x <= r.x + r.width &&
+                r.y <= y + height && y <= r.y + r.height;
+    }
+
+    public boolean contains(Rectangle r) {
+        return r.x >= x && r.y >= y &&
+                r.x + r.width <= x + width &&
+                r.y + r.height <= y + height;
+    }
+
+    public Rectangle union(Rectangle r) {
+        int minX = Math.min(x, r.x);
+        int minY = Math.min(y, r.y);
+        int maxX = Math.max(x + width, r.x + r.width);
+        int maxY = Math.max(y + height, r.y + r.height);
+        return new Rectangle(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    public Rectangle grow(int margin) {
+        return new Rectangle(x - margin, y - margin, width + 2 * margin, height + 2 * margin);
+    }
+
+    public static Rectangle around(Point p, int radius) {
+        return new Rectangle(p.getX() - radius, p.getY() - radius, 2 * radius, 2 * radius);
+    }
+}
@@ -1,4 +1,47 @@
 public interface Renderer {
     void drawLine(Point s, Point e);
     void fillPolygon(Point[] points);
-}
\ No newline at end of file
+
+    default void drawLine(int x1, int y1, int x2, int y2) {
+        drawLine(new Point(x1, y1), new Point(x2, y2));
+    }
+
+    default void drawPolyline(int[] xs, int[] ys, int count) {
+        for (int i = 0; i < count - 1; i++) {
+            drawLine(new Point(xs[i], ys[i]), new Point(xs[i + 1], ys[i + 1]));
+        }
+    }
+
+    default void drawRect(int x, int y, int width, int height) {
+        drawPolyline(new int[]{x, x + width, x + width, x, x},
+                new int[]{y, y, y + height, y + height, y}, 5);
+    }
+
+    default void fillRects(int[] rects, int count) {
+        for (int i = 0; i < count; i++) {
+            fillPolygon(new Point[]{
+                    new Point(rects[4 * i], rects[4 * i + 1]),
+                    new Point(rects[4 * i] + rects[4 * i + 2], rects[4 * i + 1]),
+                    new Point(rects[4 * i] + rects[4 * i + 2], rects[4 * i + 1] + rects[4 * i + 3]),
+                    new Point(rects[4 * i], rects[4 * i + 1] + rects[4 * i + 3])
+            });
+        }
+    }
+
+    default void fillRect(int x, int y, int width, int height) {
+        fillPolygon(new Point[]{
+                new Point(x, y),
+                new Point(x + width, y),
+                new Point(x + width, y + height),
+                new Point(x, y + height)
+        });
+    }
+
+    default double getScale() {
+        return 1;
+    }
+
+    default void fillEllipse(int centerX, int centerY, int radiusX, int radiusY) {
+        fillPolygon(UnitCircle.polygon(centerX, centerY, radiusX, radiusY, getScale()));
+    }
+}
@@ -0,0 +1,38 @@
+public class ReplaceCommand implements Command {
+    private final GraphicalObject[] removed;
+    private final int[] removedIndices;
+    private final GraphicalObject[] added;
+    private final int[] addedIndices;
+    private final long memorySize;
+
+    public ReplaceCommand(GraphicalObject[] removed, int[] removedIndices, GraphicalObject[] added, int[] addedIndices) {
+        this.removed = removed;
+        this.removedIndices = removedIndices;
+        this.added = added;
+        this.addedIndices = addedIndices;
+        this.memorySize = 48 + 12L * (removed.length + added.length) + memorySize(removed) + memorySize(added);
+    }
+
+    @Override
+    public void undo(DocumentModel model) {
+        model.replace(added, addedIndices, removed, removedIndices);
+    }
+
+    @Override
+    public void redo(DocumentModel model) {
+        model.replace(removed, removedIndices, added, addedIndices);
+    }
+
+    @Override
+    public long getMemorySize() {
+        return memorySize;
+    }
+
+    private static long memorySize(GraphicalObject[] objects) {
+        long size = 0;
+        for (GraphicalObject obj : objects) {
+            size += obj.getMemorySize();
+        }
+        return size;
+    }
+}
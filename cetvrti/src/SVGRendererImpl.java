@@ -1,47 +1,200 @@
-
-import java.io.FileWriter;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
 
 public class SVGRendererImpl implements Renderer {
+    public static final String GZIP_EXTENSION = ".svgz";
+    private static final int BUFFER_SIZE = 1 << 16;
 
-    private List<String> lines = new ArrayList<>();
-    private String fileName;
+    private final Writer writer;
+    private char[] element = new char[256];
+    private int length;
+    private IOException error;
 
-    public SVGRendererImpl(String fileName) {
-        this.fileName = fileName;
-        lines.add("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
-        lines.add("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"800\" height=\"600\">");
+    public SVGRendererImpl(String fileName) throws IOException {
+        this(open(fileName), true);
     }
 
-    public void close() throws IOException {
-        lines.add("</svg>");
+    public SVGRendererImpl(OutputStream out) throws IOException {
+        this(out, false);
+    }
+
+    private SVGRendererImpl(OutputStream out, boolean owned) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"800\" height=\"600\">\n");
+        } catch (IOException | RuntimeException e) {
+            if (owned) {
+                closeQuietly(out, e);
+            }
+            throw e;
+        }
+    }
+
+    private static OutputStream open(String fileName) throws IOException {
+        OutputStream out = new FileOutputStream(fileName);
+        if (!fileName.toLowerCase().endsWith(GZIP_EXTENSION)) {
+            return out;
+        }
+        try {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(out, e);
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(OutputStream out, Exception cause) {
+        try {
+            out.close();
+        } catch (IOException suppressed) {
+            cause.addSuppressed(suppressed);
+        }
+    }
 
-        try (FileWriter writer = new FileWriter(fileName)) {
-            for (String line : lines) {
-                writer.write(line + "\n");
+    public void close() throws IOException {
+        try {
+            if (error == null) {
+                writer.write("</svg>\n");
             }
+        } finally {
+            writer.close();
+        }
+        if (error != null) {
+            throw error;
         }
     }
 
     @Override
     public void drawLine(Point s, Point e) {
-        String line = String.format("<line x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" stroke=\"black\" stroke-width=\"1\" />",
-                s.getX(), s.getY(), e.getX(), e.getY());
-        lines.add(line);
+        drawLine(s.getX(), s.getY(), e.getX(), e.getY());
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        append("<line x1=\"").append(x1)
+                .append("\" y1=\"").append(y1)
+                .append("\" x2=\"").append(x2)
+                .append("\" y2=\"").append(y2)
+                .append("\" stroke=\"black\" stroke-width=\"1\" />\n");
+        flushElement();
+    }
+
+    @Override
+    public void drawPolyline(int[] xs, int[] ys, int count) {
+        append("<polyline points=\"");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) append(" ");
+            append(xs[i]).append(",").append(ys[i]);
+        }
+        append("\" style=\"stroke: black; fill: none; stroke-width: 1;\" />\n");
+        flushElement();
+    }
+
+    @Override
+    public void drawRect(int x, int y, int width, int height) {
+        append("<rect x=\"").append(x)
+                .append("\" y=\"").append(y)
+                .append("\" width=\"").append(width)
+                .append("\" height=\"").append(height)
+                .append("\" style=\"stroke: black; fill: none; stroke-width: 1;\" />\n");
+        flushElement();
+    }
+
+    @Override
+    public void fillRects(int[] rects, int count) {
+        append("<path d=\"");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) append(" ");
+            append("M").append(rects[4 * i]).append(" ").append(rects[4 * i + 1])
+                    .append("h").append(rects[4 * i + 2])
+                    .append("v").append(rects[4 * i + 3])
+                    .append("h").append(-rects[4 * i + 2]).append("z");
+        }
+        append("\" style=\"stroke: black; fill: gray; stroke-width: 1;\" />\n");
+        flushElement();
     }
 
     @Override
     public void fillPolygon(Point[] points) {
-        StringBuilder pointsStr = new StringBuilder();
+        append("<polygon points=\"");
         for (int i = 0; i < points.length; i++) {
-            if (i > 0) pointsStr.append(" ");
-            pointsStr.append(points[i].getX()).append(",").append(points[i].getY());
+            if (i > 0) append(" ");
+            append(points[i].getX()).append(",").append(points[i].getY());
+        }
+        append("\" style=\"stroke: black; fill: gray; stroke-width: 1;\" />\n");
+        flushElement();
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        append("<rect x=\"").append(x)
+                .append("\" y=\"").append(y)
+                .append("\" width=\"").append(width)
+                .append("\" height=\"").append(height)
+                .append("\" style=\"stroke: black; fill: gray; stroke-width: 1;\" />\n");
+        flushElement();
+    }
+
+    @Override
+    public void fillEllipse(int centerX, int centerY, int radiusX, int radiusY) {
+        append("<ellipse cx=\"").append(centerX)
+                .append("\" cy=\"").append(centerY)
+                .append("\" rx=\"").append(radiusX)
+                .append("\" ry=\"").append(radiusY)
+                .append("\" style=\"stroke: black; fill: gray; stroke-width: 1;\" />\n");
+        flushElement();
+    }
+
+    private SVGRendererImpl append(String text) {
+        ensureCapacity(text.length());
+        text.getChars(0, text.length(), element, length);
+        length += text.length();
+        return this;
+    }
+
+    private SVGRendererImpl append(int value) {
+        ensureCapacity(11);
+        int start = length;
+        long v = value;
+        if (v < 0) {
+            element[length++] = '-';
+            v = -v;
+            start++;
+        }
+        do {
+            element[length++] = (char) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            char c = element[i];
+            element[i] = element[j];
+            element[j] = c;
         }
+        return this;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > element.length) {
+            element = Arrays.copyOf(element, Math.max(element.length * 2, length + extra));
+        }
+    }
 
-        String polygon = String.format("<polygon points=\"%s\" style=\"stroke: black; fill: gray; stroke-width: 1;\" />",
-                pointsStr.toString());
-        lines.add(polygon);
+    private void flushElement() {
+        if (error == null) {
+            try {
+                writer.write(element, 0, length);
+            } catch (IOException ex) {
+                error = ex;
+            }
+        }
+        length = 0;
     }
-}
\ No newline at end of file
+}
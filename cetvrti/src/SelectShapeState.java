@@ -5,7 +5,9 @@ import java.util.List;
 public class SelectShapeState implements State {
 
     private DocumentModel model;
-    private Point lastMousePoint;
+    private boolean tracking;
+    private int lastX;
+    private int lastY;
     private GraphicalObject selectedObject;
     private int selectedHotPointIndex = -1;
     private boolean isDragging = false;
@@ -21,18 +23,13 @@ public class SelectShapeState implements State {
 
     @Override
     public void mouseDown(Point mousePoint, boolean shiftDown, boolean ctrlDown) {
-        lastMousePoint = mousePoint;
+        tracking = true;
+        lastX = mousePoint.getX();
+        lastY = mousePoint.getY();
         isDragging = false;
+        model.getHistory().seal();
 
-        GraphicalObject clickedObject = null;
-        List<GraphicalObject> objects = model.list();
-        for (int i = objects.size() - 1; i >= 0; i--) {
-            GraphicalObject obj = objects.get(i);
-            if (obj.selectionDistance(mousePoint) <= 3) {
-                clickedObject = obj;
-                break;
-            }
-        }
+        GraphicalObject clickedObject = model.findTopmostGraphicalObject(mousePoint, 3);
 
         if (clickedObject != null) {
             if (ctrlDown) {
@@ -46,17 +43,17 @@ public class SelectShapeState implements State {
                     selectedObject = clickedObject;
 
                     for (int i = 0; i < clickedObject.getNumberOfHotPoints(); i++) {
-                        Point hotPoint = clickedObject.getHotPoint(i);
-                        if (GeometryUtil.distanceFromPoint(hotPoint, mousePoint) <= 3) {
+                        if (GeometryUtil.distanceSquared(clickedObject.getHotPointX(i), clickedObject.getHotPointY(i),
+                                mousePoint.getX(), mousePoint.getY()) <= 9) {
                             selectedHotPointIndex = i;
                             return;
                         }
                     }
                 } else {
-                    for (GraphicalObject obj : model.list()) {
-                        obj.setSelected(false);
-                    }
-                    clickedObject.setSelected(true);
+                    model.batch(() -> {
+                        deselectAll();
+                        clickedObject.setSelected(true);
+                    });
                     selectedObject = clickedObject;
                 }
             }
@@ -64,10 +61,7 @@ public class SelectShapeState implements State {
             if (!ctrlDown && !shiftDown) {
                 selectionStart = mousePoint;
                 isRectangleSelection = true;
-
-                for (GraphicalObject obj : model.list()) {
-                    obj.setSelected(false);
-                }
+                model.batch(this::deselectAll);
             }
         }
     }
@@ -75,74 +69,66 @@ public class SelectShapeState implements State {
     @Override
     public void mouseUp(Point mousePoint, boolean shiftDown, boolean ctrlDown) {
         if (isRectangleSelection && selectionStart != null && selectionEnd != null) {
-            performRectangleSelection(ctrlDown);
+            model.batch(() -> performRectangleSelection(ctrlDown));
         }
 
         isDragging = false;
         selectedObject = null;
         selectedHotPointIndex = -1;
-        lastMousePoint = null;
+        tracking = false;
         selectionStart = null;
         selectionEnd = null;
         isRectangleSelection = false;
 
+        model.getHistory().seal();
         model.notifyListeners();
     }
 
     @Override
-    public void mouseDragged(Point mousePoint) {
-        if (lastMousePoint == null) return;
+    public void mouseDragged(int x, int y) {
+        if (!tracking) return;
 
         isDragging = true;
-        Point delta = new Point(
-                mousePoint.getX() - lastMousePoint.getX(),
-                mousePoint.getY() - lastMousePoint.getY()
-        );
+        int dx = x - lastX;
+        int dy = y - lastY;
 
         if (selectedHotPointIndex != -1 && selectedObject != null) {
-            Point currentHotPoint = selectedObject.getHotPoint(selectedHotPointIndex);
-            Point newHotPoint = new Point(
-                    currentHotPoint.getX() + delta.getX(),
-                    currentHotPoint.getY() + delta.getY()
-            );
-            selectedObject.setHotPoint(selectedHotPointIndex, newHotPoint);
-        } else if (selectedObject != null && model.getSelectedObjects().contains(selectedObject)) {
-            for (GraphicalObject obj : model.getSelectedObjects()) {
-                obj.translate(delta);
-            }
+            model.setHotPoint(selectedObject, selectedHotPointIndex,
+                    selectedObject.getHotPointX(selectedHotPointIndex) + dx,
+                    selectedObject.getHotPointY(selectedHotPointIndex) + dy);
+        } else if (selectedObject != null && model.isSelected(selectedObject)) {
+            model.translate(model.getSelectedObjects(), dx, dy);
         } else if (selectionStart != null) {
-            selectionEnd = mousePoint;
+            Rectangle oldBand = selectionEnd != null ? bandRectangle() : null;
+            selectionEnd = new Point(x, y);
             isRectangleSelection = true;
-            model.notifyListeners();
+            Rectangle newBand = bandRectangle();
+            model.notifyListeners(oldBand == null ? newBand : oldBand.union(newBand));
         }
 
-        lastMousePoint = mousePoint;
+        lastX = x;
+        lastY = y;
     }
 
-    private void performRectangleSelection(boolean ctrlDown) {
-        if (selectionStart == null || selectionEnd == null) return;
-
+    private Rectangle bandRectangle() {
         int minX = Math.min(selectionStart.getX(), selectionEnd.getX());
         int minY = Math.min(selectionStart.getY(), selectionEnd.getY());
         int maxX = Math.max(selectionStart.getX(), selectionEnd.getX());
         int maxY = Math.max(selectionStart.getY(), selectionEnd.getY());
 
-        Rectangle selectionRect = new Rectangle(minX, minY, maxX - minX, maxY - minY);
+        return new Rectangle(minX, minY, maxX - minX, maxY - minY);
+    }
 
-        for (GraphicalObject obj : model.list()) {
-            Rectangle objBbox = obj.getBoundingBox();
+    private void performRectangleSelection(boolean ctrlDown) {
+        if (selectionStart == null || selectionEnd == null) return;
 
-            boolean isInside = (objBbox.getX() >= selectionRect.getX() &&
-                    objBbox.getY() >= selectionRect.getY() &&
-                    objBbox.getX() + objBbox.getWidth() <= selectionRect.getX() + selectionRect.getWidth() &&
-                    objBbox.getY() + objBbox.getHeight() <= selectionRect.getY() + selectionRect.getHeight());
+        Rectangle selectionRect = bandRectangle();
 
-            if (isInside) {
-                if (ctrlDown) {
-                    obj.setSelected(!obj.isSelected());
-                } else {
-                    obj.setSelected(true);
-                }
+        for (GraphicalObject obj : model.findContainedGraphicalObjects(selectionRect)) {
+            if (ctrlDown) {
+                obj.setSelected(!obj.isSelected());
+            } else {
+                obj.setSelected(true);
             }
         }
     }
@@ -166,14 +152,16 @@ public class SelectShapeState implements State {
                 break;
             case KeyEvent.VK_PLUS:
             case KeyEvent.VK_EQUALS:
-                for (GraphicalObject obj : model.getSelectedObjects()) {
-                    model.increaseZ(obj);
-                }
+                model.bringSelectionForward();
                 break;
             case KeyEvent.VK_MINUS:
-                for (GraphicalObject obj : model.getSelectedObjects()) {
-                    model.decreaseZ(obj);
-                }
+                model.sendSelectionBackward();
+                break;
+            case KeyEvent.VK_PAGE_UP:
+                model.bringSelectionToFront();
+                break;
+            case KeyEvent.VK_PAGE_DOWN:
+                model.sendSelectionToBack();
                 break;
             case KeyEvent.VK_G:
                 groupSelectedObjects();
@@ -184,9 +172,17 @@ public class SelectShapeState implements State {
         }
 
         if (delta != null) {
-            for (GraphicalObject obj : model.getSelectedObjects()) {
-                obj.translate(delta);
-            }
+            translateSelection(delta);
+        }
+    }
+
+    private void translateSelection(Point delta) {
+        model.translate(model.getSelectedObjects(), delta);
+    }
+
+    private void deselectAll() {
+        for (GraphicalObject obj : new ArrayList<>(model.getSelectedObjects())) {
+            obj.setSelected(false);
         }
     }
 
@@ -197,14 +193,16 @@ public class SelectShapeState implements State {
             return;
         }
 
-        for (GraphicalObject obj : selectedObjects) {
-            obj.setSelected(false);
-            model.removeGraphicalObject(obj);
-        }
+        model.sortByZOrder(selectedObjects);
+        model.batch(() -> {
+            for (GraphicalObject obj : selectedObjects) {
+                obj.setSelected(false);
+            }
 
-        CompositeShape composite = new CompositeShape(selectedObjects);
-        composite.setSelected(true);
-        model.addGraphicalObject(composite);
+            CompositeShape composite = new CompositeShape(selectedObjects);
+            composite.setSelected(true);
+            model.replace(selectedObjects, List.of(composite));
+        });
     }
 
     private void ungroupSelectedObject() {
@@ -222,45 +220,31 @@ public class SelectShapeState implements State {
         CompositeShape composite = (CompositeShape) selectedObj;
         List<GraphicalObject> children = composite.getChildren();
 
-        composite.setSelected(false);
-        model.removeGraphicalObject(composite);
-
-        for (GraphicalObject child : children) {
-            child.setSelected(true);
-            model.addGraphicalObject(child);
-        }
+        model.batch(() -> {
+            composite.setSelected(false);
+            for (GraphicalObject child : children) {
+                child.setSelected(true);
+            }
+            model.replace(List.of(composite), children);
+        });
     }
 
     @Override
     public void afterDraw(Renderer r, GraphicalObject go) {
         if (go.isSelected()) {
             Rectangle bbox = go.getBoundingBox();
-
-            Point[] bboxPoints = {
-                    new Point(bbox.getX(), bbox.getY()),
-                    new Point(bbox.getX() + bbox.getWidth(), bbox.getY()),
-                    new Point(bbox.getX() + bbox.getWidth(), bbox.getY() + bbox.getHeight()),
-                    new Point(bbox.getX(), bbox.getY() + bbox.getHeight()),
-                    new Point(bbox.getX(), bbox.getY())
-            };
-
-            for (int i = 0; i < bboxPoints.length - 1; i++) {
-                r.drawLine(bboxPoints[i], bboxPoints[i + 1]);
-            }
+            r.drawRect(bbox.getX(), bbox.getY(), bbox.getWidth(), bbox.getHeight());
 
             if (model.getSelectedObjects().size() == 1 && !(go instanceof CompositeShape)) {
-                for (int i = 0; i < go.getNumberOfHotPoints(); i++) {
-                    Point hp = go.getHotPoint(i);
-
-                    Point[] hotPointSquare = {
-                            new Point(hp.getX() - 2, hp.getY() - 2),
-                            new Point(hp.getX() + 2, hp.getY() - 2),
-                            new Point(hp.getX() + 2, hp.getY() + 2),
-                            new Point(hp.getX() - 2, hp.getY() + 2)
-                    };
-
-                    r.fillPolygon(hotPointSquare);
+                int count = go.getNumberOfHotPoints();
+                int[] hotPointSquares = new int[4 * count];
+                for (int i = 0; i < count; i++) {
+                    hotPointSquares[4 * i] = go.getHotPointX(i) - 2;
+                    hotPointSquares[4 * i + 1] = go.getHotPointY(i) - 2;
+                    hotPointSquares[4 * i + 2] = 4;
+                    hotPointSquares[4 * i + 3] = 4;
                 }
+                r.fillRects(hotPointSquares, count);
             }
         }
     }
@@ -268,30 +252,19 @@ public class SelectShapeState implements State {
     @Override
     public void afterDraw(Renderer r) {
         if (isRectangleSelection && selectionStart != null && selectionEnd != null) {
-            int minX = Math.min(selectionStart.getX(), selectionEnd.getX());
-            int minY = Math.min(selectionStart.getY(), selectionEnd.getY());
-            int maxX = Math.max(selectionStart.getX(), selectionEnd.getX());
-            int maxY = Math.max(selectionStart.getY(), selectionEnd.getY());
-
-            Point topLeft = new Point(minX, minY);
-            Point topRight = new Point(maxX, minY);
-            Point bottomRight = new Point(maxX, maxY);
-            Point bottomLeft = new Point(minX, maxY);
-
-            r.drawLine(topLeft, topRight);
-            r.drawLine(topRight, bottomRight);
-            r.drawLine(bottomRight, bottomLeft);
-            r.drawLine(bottomLeft, topLeft);
+            Rectangle band = bandRectangle();
+            r.drawRect(band.getX(), band.getY(), band.getWidth(), band.getHeight());
         }
     }
 
+    @Override
+    public boolean isEditingSelection() {
+        return isDragging && selectedObject != null;
+    }
+
     @Override
     public void onLeaving() {
-        for (GraphicalObject obj : model.list()) {
-            if (obj.isSelected()) {
-                obj.setSelected(false);
-            }
-        }
+        model.batch(this::deselectAll);
 
         selectionStart = null;
         selectionEnd = null;
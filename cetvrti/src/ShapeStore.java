@@ -0,0 +1,328 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ShapeStore {
+    public static final byte LINE = 0;
+    public static final byte OVAL = 1;
+    private static final byte FREE = -1;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int SELECTED = 1;
+    private static final int HOT_POINT_SELECTED = 2;
+
+    private byte[] types;
+    private byte[] flags;
+    private int[] coords;
+    private StoredShape[] views;
+    private GraphicalObjectListener[] listeners;
+    private final Map<Integer, List<GraphicalObjectListener>> extraListeners = new HashMap<>();
+    private int size;
+    private int[] freeRows = new int[0];
+    private int freeCount;
+
+    public ShapeStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ShapeStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        types = new byte[capacity];
+        flags = new byte[capacity];
+        coords = new int[4 * capacity];
+        views = new StoredShape[capacity];
+        listeners = new GraphicalObjectListener[capacity];
+    }
+
+    public int size() { return size - freeCount; }
+
+    public GraphicalObject get(int row) {
+        checkRow(row);
+        return view(row);
+    }
+
+    public int addLine(int x1, int y1, int x2, int y2) {
+        return addRow(LINE, x1, y1, x2, y2);
+    }
+
+    public int addOval(int rightX, int rightY, int bottomX, int bottomY) {
+        return addRow(OVAL, rightX, rightY, bottomX, bottomY);
+    }
+
+    public void remove(int row) {
+        checkRow(row);
+        if (views[row] != null) {
+            views[row].release();
+            views[row] = null;
+        }
+        types[row] = FREE;
+        flags[row] = 0;
+        listeners[row] = null;
+        extraListeners.remove(row);
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, Math.max(16, 2 * freeCount));
+        }
+        freeRows[freeCount++] = row;
+    }
+
+    public void remove(GraphicalObject obj) {
+        if (!(obj instanceof StoredShape) || ((StoredShape) obj).getStore() != this) {
+            throw new IllegalArgumentException("Object is not stored here: " + obj);
+        }
+        remove(((StoredShape) obj).getRow());
+    }
+
+    public List<GraphicalObject> prototypes() {
+        List<GraphicalObject> prototypes = new ArrayList<>();
+        prototypes.add(new StoredShape(this, -1, LINE));
+        prototypes.add(new StoredShape(this, -1, OVAL));
+        return prototypes;
+    }
+
+    GraphicalObject add(byte type, int x1, int y1, int x2, int y2) {
+        return view(addRow(type, x1, y1, x2, y2));
+    }
+
+    private int addRow(byte type, int x1, int y1, int x2, int y2) {
+        int row;
+        if (freeCount > 0) {
+            row = freeRows[--freeCount];
+        } else {
+            if (size == types.length) {
+                grow();
+            }
+            row = size++;
+        }
+        types[row] = type;
+        coords[4 * row] = x1;
+        coords[4 * row + 1] = y1;
+        coords[4 * row + 2] = x2;
+        coords[4 * row + 3] = y2;
+        return row;
+    }
+
+    private StoredShape view(int row) {
+        if (views[row] == null) {
+            views[row] = new StoredShape(this, row, types[row]);
+        }
+        return views[row];
+    }
+
+    private void grow() {
+        int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        coords = Arrays.copyOf(coords, 4 * capacity);
+        views = Arrays.copyOf(views, capacity);
+        listeners = Arrays.copyOf(listeners, capacity);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size || types[row] == FREE) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", size: " + size);
+        }
+    }
+
+    int getX(int row, int index) { return coords[4 * row + 2 * index]; }
+
+    int getY(int row, int index) { return coords[4 * row + 2 * index + 1]; }
+
+    void setPoint(int row, int index, int x, int y) {
+        coords[4 * row + 2 * index] = x;
+        coords[4 * row + 2 * index + 1] = y;
+        fireChanged(row);
+    }
+
+    void translate(int row, int dx, int dy) {
+        int base = 4 * row;
+        coords[base] += dx;
+        coords[base + 1] += dy;
+        coords[base + 2] += dx;
+        coords[base + 3] += dy;
+        fireChanged(row);
+    }
+
+    boolean isSelected(int row) {
+        return (flags[row] & SELECTED) != 0;
+    }
+
+    void setSelected(int row, boolean selected) {
+        flags[row] = (byte) (selected ? flags[row] | SELECTED : flags[row] & ~SELECTED);
+        fireSelectionChanged(row);
+    }
+
+    boolean isHotPointSelected(int row, int index) {
+        return (flags[row] & (HOT_POINT_SELECTED << index)) != 0;
+    }
+
+    void setHotPointSelected(int row, int index, boolean selected) {
+        int mask = HOT_POINT_SELECTED << index;
+        flags[row] = (byte) (selected ? flags[row] | mask : flags[row] & ~mask);
+        fireChanged(row);
+    }
+
+    Rectangle getBoundingBox(int row) {
+        int base = 4 * row;
+        int x1 = coords[base], y1 = coords[base + 1], x2 = coords[base + 2], y2 = coords[base + 3];
+        if (types[row] == LINE) {
+            return new Rectangle(Math.min(x1, x2), Math.min(y1, y2), Math.abs(x1 - x2), Math.abs(y1 - y2));
+        }
+        int a = Math.abs(x1 - x2);
+        int b = Math.abs(y2 - y1);
+        return new Rectangle(x2 - a, y1 - b, 2 * a, 2 * b);
+    }
+
+    Rectangle getSelectionBounds(int row) {
+        if (types[row] == LINE) {
+            return getBoundingBox(row);
+        }
+        int base = 4 * row;
+        return Oval.selectionBounds(coords[base + 2], coords[base + 1],
+                Math.abs(coords[base] - coords[base + 2]), Math.abs(coords[base + 3] - coords[base + 1]));
+    }
+
+    double selectionDistance(int row, int px, int py) {
+        int base = 4 * row;
+        int x1 = coords[base], y1 = coords[base + 1], x2 = coords[base + 2], y2 = coords[base + 3];
+        if (types[row] == LINE) {
+            return GeometryUtil.distanceFromLineSegment(x1, y1, x2, y2, px, py);
+        }
+        return Oval.selectionDistance(x2, y1, Math.abs(x1 - x2), Math.abs(y2 - y1), px, py);
+    }
+
+    void render(int row, Renderer r) {
+        int base = 4 * row;
+        int x1 = coords[base], y1 = coords[base + 1], x2 = coords[base + 2], y2 = coords[base + 3];
+        if (types[row] == LINE) {
+            r.drawLine(x1, y1, x2, y2);
+        } else {
+            r.fillEllipse(x2, y1, Math.abs(x1 - x2), Math.abs(y2 - y1));
+        }
+    }
+
+    public GraphicalObject findNearest(Point mousePoint, double maxDistance) {
+        int px = mousePoint.getX();
+        int py = mousePoint.getY();
+        int margin = (int) Math.ceil(maxDistance);
+        int nearest = -1;
+        double minDistance = maxDistance;
+        for (int row = 0; row < size; row++) {
+            if (pickable(row, px - margin, py - margin, px + margin, py + margin)) {
+                double distance = selectionDistance(row, px, py);
+                if (distance < minDistance) {
+                    minDistance = distance;
+                    nearest = row;
+                }
+            }
+        }
+        return nearest < 0 ? null : view(nearest);
+    }
+
+    public void query(Rectangle region, List<GraphicalObject> result) {
+        int left = region.getX();
+        int top = region.getY();
+        int right = left + region.getWidth();
+        int bottom = top + region.getHeight();
+        for (int row = 0; row < size; row++) {
+            if (intersects(row, left, top, right, bottom)) {
+                result.add(view(row));
+            }
+        }
+    }
+
+    public void renderAll(Renderer r) {
+        for (int row = 0; row < size; row++) {
+            if (types[row] != FREE) {
+                render(row, r);
+            }
+        }
+    }
+
+    private boolean pickable(int row, int left, int top, int right, int bottom) {
+        if (types[row] == FREE) {
+            return false;
+        }
+        if (types[row] == LINE) {
+            return intersects(row, left, top, right, bottom);
+        }
+        int base = 4 * row;
+        int centerX = coords[base + 2];
+        int centerY = coords[base + 1];
+        long a = Math.abs(coords[base] - centerX);
+        long b = Math.abs(coords[base + 3] - centerY);
+        int radius = (int) Math.ceil(Math.sqrt(a * a + b * b));
+        return centerX - radius <= right && left <= centerX + radius
+                && centerY - radius <= bottom && top <= centerY + radius;
+    }
+
+    private boolean intersects(int row, int left, int top, int right, int bottom) {
+        if (types[row] == FREE) {
+            return false;
+        }
+        int base = 4 * row;
+        int x1 = coords[base], y1 = coords[base + 1], x2 = coords[base + 2], y2 = coords[base + 3];
+        int minX, minY, maxX, maxY;
+        if (types[row] == LINE) {
+            minX = Math.min(x1, x2);
+            maxX = Math.max(x1, x2);
+            minY = Math.min(y1, y2);
+            maxY = Math.max(y1, y2);
+        } else {
+            int a = Math.abs(x1 - x2);
+            int b = Math.abs(y2 - y1);
+            minX = x2 - a;
+            maxX = x2 + a;
+            minY = y1 - b;
+            maxY = y1 + b;
+        }
+        return minX <= right && left <= maxX && minY <= bottom && top <= maxY;
+    }
+
+    void addListener(int row, GraphicalObjectListener l) {
+        if (listeners[row] == null) {
+            listeners[row] = l;
+        } else {
+            extraListeners.computeIfAbsent(row, k -> new ArrayList<>(2)).add(l);
+        }
+    }
+
+    void removeListener(int row, GraphicalObjectListener l) {
+        List<GraphicalObjectListener> extra = extraListeners.get(row);
+        if (listeners[row] == l) {
+            listeners[row] = extra == null ? null : extra.remove(0);
+        } else if (extra != null) {
+            extra.remove(l);
+        }
+        if (extra != null && extra.isEmpty()) {
+            extraListeners.remove(row);
+        }
+    }
+
+    private void fireChanged(int row) {
+        if (listeners[row] == null) {
+            return;
+        }
+        listeners[row].graphicalObjectChanged(views[row]);
+        List<GraphicalObjectListener> extra = extraListeners.get(row);
+        if (extra != null) {
+            for (GraphicalObjectListener l : extra) {
+                l.graphicalObjectChanged(views[row]);
+            }
+        }
+    }
+
+    private void fireSelectionChanged(int row) {
+        if (listeners[row] == null) {
+            return;
+        }
+        listeners[row].graphicalObjectSelectionChanged(views[row]);
+        List<GraphicalObjectListener> extra = extraListeners.get(row);
+        if (extra != null) {
+            for (GraphicalObjectListener l : extra) {
+                l.graphicalObjectSelectionChanged(views[row]);
+            }
+        }
+    }
+}
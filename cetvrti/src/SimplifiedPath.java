@@ -0,0 +1,93 @@
+import java.util.Arrays;
+
+public class SimplifiedPath {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_TOLERANCE_GROWTH = 8;
+
+    private final int maxPoints;
+    private final double initialTolerance;
+    private double tolerance;
+    private int[] xs = new int[INITIAL_CAPACITY];
+    private int[] ys = new int[INITIAL_CAPACITY];
+    private int size;
+
+    public SimplifiedPath(double tolerance, int maxPoints) {
+        if (maxPoints < 2) {
+            throw new IllegalArgumentException("maxPoints must be at least 2: " + maxPoints);
+        }
+        this.initialTolerance = tolerance;
+        this.tolerance = tolerance;
+        this.maxPoints = maxPoints;
+    }
+
+    public int size() { return size; }
+
+    public int[] getXs() { return xs; }
+
+    public int[] getYs() { return ys; }
+
+    public double getTolerance() { return tolerance; }
+
+    public void clear() {
+        size = 0;
+        tolerance = initialTolerance;
+    }
+
+    public int add(int x, int y) {
+        int modified = append(x, y);
+        if (size > maxPoints) {
+            coarsen();
+            return 0;
+        }
+        return modified;
+    }
+
+    private int append(int x, int y) {
+        if (size > 0 && GeometryUtil.distanceSquared(xs[size - 1], ys[size - 1], x, y) < tolerance * tolerance) {
+            return size;
+        }
+        if (size > 1 && GeometryUtil.distanceSquaredFromLineSegment(
+                xs[size - 2], ys[size - 2], x, y, xs[size - 1], ys[size - 1]) <= tolerance * tolerance) {
+            xs[size - 1] = x;
+            ys[size - 1] = y;
+            return size - 1;
+        }
+
+        if (size == xs.length) {
+            int capacity = Math.min(size * 2, maxPoints + 1);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+        }
+        xs[size] = x;
+        ys[size] = y;
+        return size++;
+    }
+
+    private void coarsen() {
+        int target = Math.max(2, maxPoints / 2);
+        if (tolerance < initialTolerance * MAX_TOLERANCE_GROWTH) {
+            tolerance = Math.min(tolerance * 2, initialTolerance * MAX_TOLERANCE_GROWTH);
+            int count = size;
+            int lastX = xs[count - 1];
+            int lastY = ys[count - 1];
+            size = 0;
+            for (int i = 0; i < count - 1; i++) {
+                append(xs[i], ys[i]);
+            }
+            xs[size] = lastX;
+            ys[size] = lastY;
+            size++;
+        }
+        while (size > target) {
+            int kept = 1;
+            for (int i = 2; i < size - 1; i += 2) {
+                xs[kept] = xs[i];
+                ys[kept] = ys[i];
+                kept++;
+            }
+            xs[kept] = xs[size - 1];
+            ys[kept] = ys[size - 1];
+            size = kept + 1;
+        }
+    }
+}
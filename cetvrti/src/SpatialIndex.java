@@ -0,0 +1,14 @@
+import java.util.List;
+
+public interface SpatialIndex {
+    void insert(GraphicalObject go, Rectangle bounds);
+    void update(GraphicalObject go, Rectangle bounds);
+    void remove(GraphicalObject go);
+    void clear();
+    Rectangle getBounds(GraphicalObject go);
+    void query(Rectangle region, List<GraphicalObject> result);
+
+    default void queryParallel(Rectangle region, List<GraphicalObject> result) {
+        query(region, result);
+    }
+}
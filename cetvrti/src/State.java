@@ -1,9 +1,10 @@
 public interface State {
     void mouseDown(Point mousePoint, boolean shiftDown, boolean ctrlDown);
     void mouseUp(Point mousePoint, boolean shiftDown, boolean ctrlDown);
-    void mouseDragged(Point mousePoint);
+    void mouseDragged(int x, int y);
     void keyPressed(int keyCode);
     void afterDraw(Renderer r, GraphicalObject go);
     void afterDraw(Renderer r);
+    boolean isEditingSelection();
     void onLeaving();
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+import java.io.IOException;
+import java.util.Deque;
+
+public final class StoredShape implements GraphicalObject {
+    private final ShapeStore store;
+    private int row;
+    private final byte type;
+
+    StoredShape(ShapeStore store, int row, byte type) {
+        this.store = store;
+        this.row = row;
+        this.type = type;
+    }
+
+    public ShapeStore getStore() { return store; }
+
+    public int getRow() { return row; }
+
+    void release() {
+        row = -1;
+    }
+
+    @Override
+    public boolean isSelected() { return store.isSelected(row); }
+
+    @Override
+    public void setSelected(boolean selected) {
+        store.setSelected(row, selected);
+    }
+
+    @Override
+    public int getNumberOfHotPoints() { return 2; }
+
+    @Override
+    public Point getHotPoint(int index) {
+        return new Point(store.getX(row, index), store.getY(row, index));
+    }
+
+    @Override
+    public int getHotPointX(int index) { return store.getX(row, index); }
+
+    @Override
+    public int getHotPointY(int index) { return store.getY(row, index); }
+
+    @Override
+    public void setHotPoint(int index, Point point) {
+        store.setPoint(row, index, point.getX(), point.getY());
+    }
+
+    @Override
+    public void setHotPoint(int index, int x, int y) {
+        store.setPoint(row, index, x, y);
+    }
+
+    @Override
+    public boolean isHotPointSelected(int index) { return store.isHotPointSelected(row, index); }
+
+    @Override
+    public void setHotPointSelected(int index, boolean selected) {
+        store.setHotPointSelected(row, index, selected);
+    }
+
+    @Override
+    public double getHotPointDistance(int index, Point mousePoint) {
+        return GeometryUtil.distanceFromPoint(store.getX(row, index), store.getY(row, index),
+                mousePoint.getX(), mousePoint.getY());
+    }
+
+    @Override
+    public void translate(Point delta) {
+        store.translate(row, delta.getX(), delta.getY());
+    }
+
+    @Override
+    public void translate(int dx, int dy) {
+        store.translate(row, dx, dy);
+    }
+
+    @Override
+    public Rectangle getBoundingBox() {
+        return store.getBoundingBox(row);
+    }
+
+    @Override
+    public Rectangle getSelectionBounds() {
+        return store.getSelectionBounds(row);
+    }
+
+    @Override
+    public double selectionDistance(Point mousePoint) {
+        return store.selectionDistance(row, mousePoint.getX(), mousePoint.getY());
+    }
+
+    @Override
+    public long getMemorySize() {
+        return 56;
+    }
+
+    @Override
+    public void render(Renderer r) {
+        store.render(row, r);
+    }
+
+    @Override
+    public void addGraphicalObjectListener(GraphicalObjectListener l) {
+        store.addListener(row, l);
+    }
+
+    @Override
+    public void removeGraphicalObjectListener(GraphicalObjectListener l) {
+        store.removeListener(row, l);
+    }
+
+    @Override
+    public String getShapeName() {
+        return type == ShapeStore.LINE ? "Linija" : "Oval";
+    }
+
+    @Override
+    public String getShapeID() {
+        return type == ShapeStore.LINE ? "@LINE" : "@OVAL";
+    }
+
+    @Override
+    public GraphicalObject duplicate() {
+        return store.add(type, store.getX(row, 0), store.getY(row, 0),
+                store.getX(row, 1), store.getY(row, 1));
+    }
+
+    @Override
+    public void save(DrawingOutput out) throws IOException {
+        out.beginShape(getShapeID());
+        out.writeInt(store.getX(row, 0));
+        out.writeInt(store.getY(row, 0));
+        out.writeInt(store.getX(row, 1));
+        out.writeInt(store.getY(row, 1));
+        out.endShape();
+    }
+
+    @Override
+    public void load(Deque<GraphicalObject> stack, DrawingInput data) throws IOException {
+        int x1 = data.nextInt();
+        int y1 = data.nextInt();
+        int x2 = data.nextInt();
+        int y2 = data.nextInt();
+
+        stack.push(store.add(type, x1, y1, x2, y2));
+    }
+}
@@ -0,0 +1,31 @@
+import java.io.IOException;
+import java.io.Writer;
+
+public class TextDrawingOutput implements DrawingOutput {
+    private final Writer writer;
+
+    public TextDrawingOutput(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void beginShape(String shapeID) throws IOException {
+        writer.write(shapeID);
+    }
+
+    @Override
+    public void writeInt(int value) throws IOException {
+        writer.write(' ');
+        writer.write(Integer.toString(value));
+    }
+
+    @Override
+    public void endShape() throws IOException {
+        writer.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
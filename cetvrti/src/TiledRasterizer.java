@@ -0,0 +1,128 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class TiledRasterizer {
+    public static final int DEFAULT_TILE_SIZE = 256;
+    private static final int STROKE_MARGIN = 2;
+    private static final Color TRANSPARENT = new Color(0, 0, 0, 0);
+
+    private final ForkJoinPool pool;
+    private final int tileSize;
+
+    public TiledRasterizer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_TILE_SIZE);
+    }
+
+    public TiledRasterizer(ForkJoinPool pool, int tileSize) {
+        this.pool = pool;
+        this.tileSize = tileSize;
+    }
+
+    public BufferedImage render(List<GraphicalObject> objects, int width, int height,
+                                double scale, double offsetX, double offsetY, Color background) {
+        if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Image too large: " + width + "x" + height);
+        }
+        BufferedImage image = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_ARGB);
+        Job job = new Job(image, scale, offsetX, offsetY, background);
+        job.bin(objects);
+        pool.invoke(job.new TileTask(0, job.columns * job.rows));
+        return image;
+    }
+
+    private class Job {
+        final BufferedImage image;
+        final double scale;
+        final double offsetX;
+        final double offsetY;
+        final Color background;
+        final int columns;
+        final int rows;
+        final List<List<GraphicalObject>> tiles;
+
+        Job(BufferedImage image, double scale, double offsetX, double offsetY, Color background) {
+            this.image = image;
+            this.scale = scale;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            this.background = background;
+            this.columns = (image.getWidth() + tileSize - 1) / tileSize;
+            this.rows = (image.getHeight() + tileSize - 1) / tileSize;
+            this.tiles = new ArrayList<>(columns * rows);
+            for (int i = 0; i < columns * rows; i++) {
+                tiles.add(new ArrayList<>());
+            }
+        }
+
+        void bin(List<GraphicalObject> objects) {
+            for (GraphicalObject obj : objects) {
+                Rectangle bbox = obj.getBoundingBox();
+                int minColumn = tileIndex(bbox.getX() * scale + offsetX - STROKE_MARGIN, columns);
+                int maxColumn = tileIndex(((long) bbox.getX() + bbox.getWidth()) * scale + offsetX + STROKE_MARGIN, columns);
+                int minRow = tileIndex(bbox.getY() * scale + offsetY - STROKE_MARGIN, rows);
+                int maxRow = tileIndex(((long) bbox.getY() + bbox.getHeight()) * scale + offsetY + STROKE_MARGIN, rows);
+                for (int row = minRow; row <= maxRow; row++) {
+                    for (int column = minColumn; column <= maxColumn; column++) {
+                        tiles.get(row * columns + column).add(obj);
+                    }
+                }
+            }
+        }
+
+        private int tileIndex(double pixel, int count) {
+            return (int) Math.max(0, Math.min(count - 1, Math.floor(pixel / tileSize)));
+        }
+
+        void renderTile(int index) {
+            int x = (index % columns) * tileSize;
+            int y = (index / columns) * tileSize;
+            int width = Math.min(tileSize, image.getWidth() - x);
+            int height = Math.min(tileSize, image.getHeight() - y);
+
+            Graphics2D g2d = image.createGraphics();
+            try {
+                g2d.setClip(x, y, width, height);
+                g2d.setComposite(AlphaComposite.Src);
+                g2d.setColor(background != null ? background : TRANSPARENT);
+                g2d.fillRect(x, y, width, height);
+                g2d.setComposite(AlphaComposite.SrcOver);
+                g2d.translate(offsetX, offsetY);
+                g2d.scale(scale, scale);
+                Renderer r = new G2DRendererImpl(g2d);
+                for (GraphicalObject obj : tiles.get(index)) {
+                    obj.render(r);
+                }
+            } finally {
+                g2d.dispose();
+            }
+        }
+
+        class TileTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+
+            TileTask(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from <= 1) {
+                    if (from < to) {
+                        renderTile(from);
+                    }
+                    return;
+                }
+                int middle = (from + to) >>> 1;
+                invokeAll(new TileTask(from, middle), new TileTask(middle, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+import java.util.Arrays;
+
+public class TranslateCommand implements Command {
+    private final GraphicalObject[] targets;
+    private int dx;
+    private int dy;
+
+    public TranslateCommand(GraphicalObject[] targets, int dx, int dy) {
+        this.targets = targets;
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    @Override
+    public void undo(DocumentModel model) {
+        model.translate(Arrays.asList(targets), -dx, -dy);
+    }
+
+    @Override
+    public void redo(DocumentModel model) {
+        model.translate(Arrays.asList(targets), dx, dy);
+    }
+
+    @Override
+    public long getMemorySize() {
+        return 32 + 8L * targets.length;
+    }
+
+    @Override
+    public boolean mergeWith(Command next) {
+        if (!(next instanceof TranslateCommand)) {
+            return false;
+        }
+        TranslateCommand other = (TranslateCommand) next;
+        if (other.targets.length != targets.length) {
+            return false;
+        }
+        for (int i = 0; i < targets.length; i++) {
+            if (targets[i] != other.targets[i]) {
+                return false;
+            }
+        }
+        dx += other.dx;
+        dy += other.dy;
+        return true;
+    }
+}
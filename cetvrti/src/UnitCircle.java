@@ -0,0 +1,53 @@
+public class UnitCircle {
+    private static final int MIN_SEGMENTS = 8;
+    private static final int MAX_SEGMENTS = 256;
+    private static final double PIXELS_PER_SEGMENT = 4;
+
+    private static final double[][] COS = new double[Integer.numberOfTrailingZeros(MAX_SEGMENTS) + 1][];
+    private static final double[][] SIN = new double[COS.length][];
+
+    static {
+        for (int level = Integer.numberOfTrailingZeros(MIN_SEGMENTS); level < COS.length; level++) {
+            int segments = 1 << level;
+            COS[level] = new double[segments];
+            SIN[level] = new double[segments];
+            for (int i = 0; i < segments; i++) {
+                double angle = 2 * Math.PI * i / segments;
+                COS[level][i] = Math.cos(angle);
+                SIN[level][i] = Math.sin(angle);
+            }
+        }
+    }
+
+    private static final ThreadLocal<Point[][]> POLYGONS = ThreadLocal.withInitial(() -> new Point[COS.length][]);
+
+    public static int segmentsFor(double screenRadius) {
+        double wanted = 2 * Math.PI * screenRadius / PIXELS_PER_SEGMENT;
+        int segments = MIN_SEGMENTS;
+        while (segments < wanted && segments < MAX_SEGMENTS) {
+            segments *= 2;
+        }
+        return segments;
+    }
+
+    public static Point[] polygon(int centerX, int centerY, int radiusX, int radiusY, double scale) {
+        int segments = segmentsFor(Math.max(radiusX, radiusY) * scale);
+        int level = Integer.numberOfTrailingZeros(segments);
+        double[] cos = COS[level];
+        double[] sin = SIN[level];
+
+        Point[][] polygons = POLYGONS.get();
+        if (polygons[level] == null) {
+            polygons[level] = new Point[segments];
+        }
+        Point[] points = polygons[level];
+        for (int i = 0; i < segments; i++) {
+            int x = centerX + (int)(radiusX * cos[i]);
+            int y = centerY + (int)(radiusY * sin[i]);
+            if (points[i] == null || points[i].getX() != x || points[i].getY() != y) {
+                points[i] = new Point(x, y);
+            }
+        }
+        return points;
+    }
+}
@@ -0,0 +1,68 @@
+import java.awt.geom.AffineTransform;
+
+public class Viewport {
+    private static final double MIN_SCALE = 1.0 / 64;
+    private static final double MAX_SCALE = 64;
+
+    private double scale = 1;
+    private double offsetX;
+    private double offsetY;
+
+    public double getScale() { return scale; }
+
+    public double getOffsetX() { return offsetX; }
+
+    public double getOffsetY() { return offsetY; }
+
+    public AffineTransform getTransform() {
+        AffineTransform transform = AffineTransform.getTranslateInstance(offsetX, offsetY);
+        transform.scale(scale, scale);
+        return transform;
+    }
+
+    public Point toDocument(int screenX, int screenY) {
+        return new Point(toDocumentX(screenX), toDocumentY(screenY));
+    }
+
+    public int toDocumentX(int screenX) {
+        return (int) Math.floor((screenX - offsetX) / scale);
+    }
+
+    public int toDocumentY(int screenY) {
+        return (int) Math.floor((screenY - offsetY) / scale);
+    }
+
+    public Rectangle toDocument(int screenX, int screenY, int width, int height) {
+        int minX = (int) Math.floor((screenX - offsetX) / scale);
+        int minY = (int) Math.floor((screenY - offsetY) / scale);
+        int maxX = (int) Math.ceil((screenX + width - offsetX) / scale);
+        int maxY = (int) Math.ceil((screenY + height - offsetY) / scale);
+        return new Rectangle(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    public java.awt.Rectangle toScreen(Rectangle r) {
+        int minX = (int) Math.floor(r.getX() * scale + offsetX);
+        int minY = (int) Math.floor(r.getY() * scale + offsetY);
+        int maxX = (int) Math.ceil(((long) r.getX() + r.getWidth()) * scale + offsetX);
+        int maxY = (int) Math.ceil(((long) r.getY() + r.getHeight()) * scale + offsetY);
+        return new java.awt.Rectangle(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    public void zoom(double factor, int anchorX, int anchorY) {
+        double newScale = Math.max(MIN_SCALE, Math.min(MAX_SCALE, scale * factor));
+        offsetX = anchorX - (anchorX - offsetX) * newScale / scale;
+        offsetY = anchorY - (anchorY - offsetY) * newScale / scale;
+        scale = newScale;
+    }
+
+    public void pan(int dx, int dy) {
+        offsetX += dx;
+        offsetY += dy;
+    }
+
+    public void reset() {
+        scale = 1;
+        offsetX = 0;
+        offsetY = 0;
+    }
+}
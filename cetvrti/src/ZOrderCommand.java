@@ -0,0 +1,32 @@
+public class ZOrderCommand implements Command {
+    private final GraphicalObject target;
+    private final boolean raised;
+
+    public ZOrderCommand(GraphicalObject target, boolean raised) {
+        this.target = target;
+        this.raised = raised;
+    }
+
+    @Override
+    public void undo(DocumentModel model) {
+        if (raised) {
+            model.decreaseZ(target);
+        } else {
+            model.increaseZ(target);
+        }
+    }
+
+    @Override
+    public void redo(DocumentModel model) {
+        if (raised) {
+            model.increaseZ(target);
+        } else {
+            model.decreaseZ(target);
+        }
+    }
+
+    @Override
+    public long getMemorySize() {
+        return 24;
+    }
+}
@@ -0,0 +1,285 @@
+import java.util.AbstractList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+public class ZOrderTree {
+    private Node root;
+    private final Map<GraphicalObject, Node> nodes = new IdentityHashMap<>();
+    private long seed = 0x9E3779B97F4A7C15L;
+    private int version;
+    private final List<GraphicalObject> view = new AbstractList<>() {
+        @Override
+        public GraphicalObject get(int index) {
+            return ZOrderTree.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return nodes.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof GraphicalObject && nodes.containsKey(o);
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return o instanceof GraphicalObject ? ZOrderTree.this.indexOf((GraphicalObject) o) : -1;
+        }
+
+        @Override
+        public Iterator<GraphicalObject> iterator() {
+            return new Iterator<>() {
+                private Node next = leftmost(root);
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public GraphicalObject next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    GraphicalObject value = next.value;
+                    next = successor(next);
+                    return value;
+                }
+            };
+        }
+    };
+
+    private static class Node {
+        GraphicalObject value;
+        final int priority;
+        Node left;
+        Node right;
+        Node parent;
+        int size = 1;
+        int rank;
+        int rankVersion = -1;
+
+        Node(GraphicalObject value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    public List<GraphicalObject> asList() {
+        return view;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public boolean contains(GraphicalObject go) {
+        return nodes.containsKey(go);
+    }
+
+    public void clear() {
+        nodes.clear();
+        root = null;
+        version++;
+    }
+
+    public void add(GraphicalObject go) {
+        add(nodes.size(), go);
+    }
+
+    public void add(int index, GraphicalObject go) {
+        if (index < 0 || index > nodes.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + nodes.size());
+        }
+        if (nodes.containsKey(go)) {
+            throw new IllegalArgumentException("Object is already in the z-order");
+        }
+        Node node = new Node(go, nextPriority());
+        if (index < nodes.size()) {
+            version++;
+        }
+        nodes.put(go, node);
+        Node[] parts = split(root, index);
+        root = detach(merge(merge(parts[0], node), parts[1]));
+    }
+
+    public int remove(GraphicalObject go) {
+        Node node = nodes.remove(go);
+        if (node == null) {
+            return -1;
+        }
+        int index = rank(node);
+        version++;
+        Node[] parts = split(root, index);
+        Node[] rest = split(parts[1], 1);
+        root = detach(merge(parts[0], rest[1]));
+        return index;
+    }
+
+    public int indexOf(GraphicalObject go) {
+        Node node = nodes.get(go);
+        if (node == null) {
+            return -1;
+        }
+        if (node.rankVersion != version) {
+            node.rank = rank(node);
+            node.rankVersion = version;
+        }
+        return node.rank;
+    }
+
+    public GraphicalObject get(int index) {
+        if (index < 0 || index >= nodes.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + nodes.size());
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.value;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    public GraphicalObject swapWithNext(GraphicalObject go) {
+        Node node = nodes.get(go);
+        return node == null ? null : swap(node, successor(node));
+    }
+
+    public GraphicalObject swapWithPrevious(GraphicalObject go) {
+        Node node = nodes.get(go);
+        return node == null ? null : swap(node, predecessor(node));
+    }
+
+    private GraphicalObject swap(Node node, Node neighbour) {
+        if (neighbour == null) {
+            return null;
+        }
+        GraphicalObject other = neighbour.value;
+        neighbour.value = node.value;
+        node.value = other;
+        nodes.put(neighbour.value, neighbour);
+        nodes.put(node.value, node);
+        return other;
+    }
+
+    private static int rank(Node node) {
+        int rank = size(node.left);
+        while (node.parent != null) {
+            if (node.parent.right == node) {
+                rank += size(node.parent.left) + 1;
+            }
+            node = node.parent;
+        }
+        return rank;
+    }
+
+    private static Node leftmost(Node node) {
+        if (node != null) {
+            while (node.left != null) {
+                node = node.left;
+            }
+        }
+        return node;
+    }
+
+    private static Node successor(Node node) {
+        if (node.right != null) {
+            return leftmost(node.right);
+        }
+        while (node.parent != null && node.parent.right == node) {
+            node = node.parent;
+        }
+        return node.parent;
+    }
+
+    private static Node predecessor(Node node) {
+        if (node.left != null) {
+            node = node.left;
+            while (node.right != null) {
+                node = node.right;
+            }
+            return node;
+        }
+        while (node.parent != null && node.parent.left == node) {
+            node = node.parent;
+        }
+        return node.parent;
+    }
+
+    private static Node[] split(Node node, int count) {
+        if (node == null) {
+            return new Node[2];
+        }
+        Node[] parts;
+        if (size(node.left) >= count) {
+            parts = split(node.left, count);
+            node.left = parts[1];
+            update(node);
+            parts[1] = node;
+        } else {
+            parts = split(node.right, count - size(node.left) - 1);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+        }
+        detach(parts[0]);
+        detach(parts[1]);
+        return parts;
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        if (node.left != null) {
+            node.left.parent = node;
+        }
+        if (node.right != null) {
+            node.right.parent = node;
+        }
+    }
+
+    private static Node detach(Node node) {
+        if (node != null) {
+            node.parent = null;
+        }
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (int) (seed >>> 32);
+    }
+}